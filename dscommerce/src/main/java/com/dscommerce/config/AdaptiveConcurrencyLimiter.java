@@ -0,0 +1,120 @@
+package com.dscommerce.config;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Caps the requests in flight at a limit that follows their latency, in the
+ * way of the gradient limiter of Netflix concurrency-limits. Every window the
+ * average latency is compared with a slow moving average of past windows:
+ * while it stays within tolerance times that baseline and the limit is
+ * actually reached, the limit grows by about its square root; once requests
+ * take longer while the limit is nearly reached, meaning they queue for
+ * connections or CPU, it shrinks in proportion. Slow windows with few requests
+ * in flight say nothing about the limit and leave it alone. Callers over the
+ * limit are refused at once instead of waiting.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+	private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+	private static final int MIN_SAMPLES = 10;
+	// the baseline averages about the last 600 windows, a minute
+	private static final double BASELINE_WINDOWS = 600;
+	private static final double SMOOTHING = 0.2;
+	// share of the limit in flight before a slow window counts as queueing
+	private static final double NEAR_LIMIT = 0.8;
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final double tolerance;
+	private final LongSupplier clock;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger peakInFlight = new AtomicInteger();
+	private final LongAdder latencySum = new LongAdder();
+	private final LongAdder samples = new LongAdder();
+	private final AtomicLong windowStart;
+
+	private volatile int limit;
+
+	// only touched by update(), under this
+	private double estimate;
+	private double baselineNanos;
+
+	public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+		this(initialLimit, minLimit, maxLimit, tolerance, System::nanoTime);
+	}
+
+	// the clock is replaced by tests to step through windows
+	AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, LongSupplier clock) {
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.tolerance = tolerance;
+		this.clock = clock;
+		this.windowStart = new AtomicLong(clock.getAsLong());
+		this.estimate = Math.clamp(initialLimit, minLimit, maxLimit);
+		this.limit = (int) estimate;
+	}
+
+	public boolean tryAcquire() {
+		while (true) {
+			int current = inFlight.get();
+			if (current >= limit) {
+				return false;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				peakInFlight.accumulateAndGet(current + 1, Math::max);
+				return true;
+			}
+		}
+	}
+
+	public void release(long latencyNanos) {
+		inFlight.decrementAndGet();
+		latencySum.add(latencyNanos);
+		samples.increment();
+		long start = windowStart.get();
+		long now = clock.getAsLong();
+		if (now - start >= WINDOW_NANOS && samples.sum() >= MIN_SAMPLES && windowStart.compareAndSet(start, now)) {
+			long count = samples.sumThenReset();
+			update(latencySum.sumThenReset() / (double) Math.max(count, 1), peakInFlight.getAndSet(inFlight.get()));
+		}
+	}
+
+	public int getLimit() {
+		return limit;
+	}
+
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	private synchronized void update(double latencyNanos, int peak) {
+		// a long moving average rather than the fastest window, so a window of cache hits
+		// or 404s does not set a baseline no database-backed request can meet
+		if (baselineNanos == 0) {
+			baselineNanos = latencyNanos;
+		} else {
+			baselineNanos += (latencyNanos - baselineNanos) / BASELINE_WINDOWS;
+		}
+		if (baselineNanos > 2 * latencyNanos) {
+			// raised by a long overload, come back down faster than the average would
+			baselineNanos *= 0.95;
+		}
+		double gradient = Math.clamp(tolerance * baselineNanos / latencyNanos, 0.5, 1.0);
+		if (gradient == 1.0 && peak < estimate / 2) {
+			// far below the limit, nothing tells whether a higher one would be fine
+			return;
+		}
+		if (gradient < 1.0 && peak < estimate * NEAR_LIMIT) {
+			// slow without being near the limit, the requests are not queueing behind each other
+			return;
+		}
+		double next = estimate * gradient + Math.sqrt(estimate);
+		estimate = Math.clamp(estimate * (1 - SMOOTHING) + next * SMOOTHING, minLimit, maxLimit);
+		limit = (int) estimate;
+	}
+}
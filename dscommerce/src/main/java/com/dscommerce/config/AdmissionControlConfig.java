@@ -0,0 +1,81 @@
+package com.dscommerce.config;
+
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * One {@link AdmissionControlFilter} for the authorization server chain
+ * (/oauth2/**, clients by OAuth2 client id) and one for the API chain
+ * (clients by access token), each with its own limits under
+ * admission-control.token and admission-control.api.
+ */
+@Configuration
+public class AdmissionControlConfig {
+
+	@Value("${admission-control.enabled:true}")
+	private boolean enabled;
+
+	@Value("${admission-control.max-keys:50000}")
+	private int maxKeys;
+
+	@Value("${admission-control.latency-tolerance:2.0}")
+	private double latencyTolerance;
+
+	@Autowired
+	private Environment env;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Bean
+	public AdmissionControlFilter tokenAdmissionControlFilter() {
+		return filter("token", AdmissionControlFilter::basicClientId);
+	}
+
+	@Bean
+	public AdmissionControlFilter apiAdmissionControlFilter() {
+		return filter("api", AdmissionControlFilter::bearerToken);
+	}
+
+	// added to the security filter chains only, not to every request by Spring Boot
+	@Bean
+	FilterRegistrationBean<AdmissionControlFilter> tokenAdmissionControlRegistration() {
+		FilterRegistrationBean<AdmissionControlFilter> bean = new FilterRegistrationBean<>(tokenAdmissionControlFilter());
+		bean.setEnabled(false);
+		return bean;
+	}
+
+	@Bean
+	FilterRegistrationBean<AdmissionControlFilter> apiAdmissionControlRegistration() {
+		FilterRegistrationBean<AdmissionControlFilter> bean = new FilterRegistrationBean<>(apiAdmissionControlFilter());
+		bean.setEnabled(false);
+		return bean;
+	}
+
+	private AdmissionControlFilter filter(String chain, Function<HttpServletRequest, String> clientKey) {
+		String prefix = "admission-control." + chain + ".";
+		RateLimiter ipLimiter = new RateLimiter(intProperty(prefix + "ip.capacity"),
+				env.getRequiredProperty(prefix + "ip.per-second", Double.class), maxKeys);
+		RateLimiter clientLimiter = new RateLimiter(intProperty(prefix + "client.capacity"),
+				env.getRequiredProperty(prefix + "client.per-second", Double.class), maxKeys);
+		AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(
+				intProperty(prefix + "concurrency.initial"), intProperty(prefix + "concurrency.min"),
+				intProperty(prefix + "concurrency.max"), latencyTolerance);
+		return new AdmissionControlFilter(enabled, ipLimiter, clientLimiter, concurrencyLimiter, clientKey,
+				objectMapper);
+	}
+
+	private int intProperty(String name) {
+		return env.getRequiredProperty(name, Integer.class);
+	}
+}
@@ -0,0 +1,113 @@
+package com.dscommerce.config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.dscommerce.dto.exceptions.CustomError;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admission control at the start of a security filter chain, before any token
+ * is decoded or password hashed. A request is refused with 429 when the
+ * bucket of its IP or of its client is empty, and with 503 when the chain
+ * already has as many requests in flight as its
+ * {@link AdaptiveConcurrencyLimiter} allows, so overload is turned away at
+ * once instead of queueing for Tomcat threads, connections or BCrypt.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+	private final boolean enabled;
+	private final RateLimiter ipLimiter;
+	private final RateLimiter clientLimiter;
+	private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+	private final Function<HttpServletRequest, String> clientKey;
+	private final ObjectMapper objectMapper;
+
+	public AdmissionControlFilter(boolean enabled, RateLimiter ipLimiter, RateLimiter clientLimiter,
+			AdaptiveConcurrencyLimiter concurrencyLimiter, Function<HttpServletRequest, String> clientKey,
+			ObjectMapper objectMapper) {
+		this.enabled = enabled;
+		this.ipLimiter = ipLimiter;
+		this.clientLimiter = clientLimiter;
+		this.concurrencyLimiter = concurrencyLimiter;
+		this.clientKey = clientKey;
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !enabled;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		long waitNanos = ipLimiter.tryAcquire(request.getRemoteAddr());
+		String client = clientKey.apply(request);
+		if (waitNanos == 0 && client != null) {
+			waitNanos = clientLimiter.tryAcquire(client);
+		}
+		if (waitNanos > 0) {
+			reject(request, response, HttpStatus.TOO_MANY_REQUESTS, "Too many requests",
+					Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+			return;
+		}
+		if (!concurrencyLimiter.tryAcquire()) {
+			reject(request, response, HttpStatus.SERVICE_UNAVAILABLE, "Server busy, try again later", 1);
+			return;
+		}
+		long start = System.nanoTime();
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			concurrencyLimiter.release(System.nanoTime() - start);
+		}
+	}
+
+	private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String error,
+			long retryAfterSeconds) throws IOException {
+		response.setStatus(status.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		objectMapper.writeValue(response.getOutputStream(),
+				new CustomError(Instant.now(), status.value(), error, request.getRequestURI()));
+	}
+
+	// the signature part identifies the access token and keeps the keys short
+	public static String bearerToken(HttpServletRequest request) {
+		String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+		if (authorization == null || !authorization.startsWith("Bearer ")) {
+			return null;
+		}
+		return authorization.substring(authorization.lastIndexOf('.') + 1);
+	}
+
+	public static String basicClientId(HttpServletRequest request) {
+		String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+		if (authorization == null || !authorization.startsWith("Basic ")) {
+			return null;
+		}
+		try {
+			String credentials = new String(Base64.getDecoder().decode(authorization.substring(6).trim()),
+					StandardCharsets.UTF_8);
+			int colon = credentials.indexOf(':');
+			return colon < 0 ? null : credentials.substring(0, colon);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+}
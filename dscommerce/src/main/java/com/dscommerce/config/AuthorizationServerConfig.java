@@ -43,6 +43,8 @@ import org.springframework.security.oauth2.server.authorization.token.OAuth2Acce
 import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenCustomizer;
 import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenGenerator;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.context.SecurityContextHolderFilter;
+import org.springframework.util.function.SingletonSupplier;
 
 import com.dscommerce.config.customgrant.CustomPasswordAuthenticationConverter;
 import com.dscommerce.config.customgrant.CustomPasswordAuthenticationProvider;
@@ -67,6 +69,9 @@ public class AuthorizationServerConfig {
 	@Autowired
 	private UserDetailsService userDetailsService;
 
+	@Autowired
+	private AdmissionControlFilter tokenAdmissionControlFilter;
+
 	@Bean
 	@Order(2)
 	public SecurityFilterChain asSecurityFilterChain(HttpSecurity http) throws Exception {
@@ -82,6 +87,9 @@ public class AuthorizationServerConfig {
 		http.oauth2ResourceServer(oauth2ResourceServer -> oauth2ResourceServer.jwt(Customizer.withDefaults()));
 		// @formatter:on
 
+		// before the client secret and the user password are checked with BCrypt
+		http.addFilterBefore(tokenAdmissionControlFilter, SecurityContextHolderFilter.class);
+
 		return http.build();
 	}
 
@@ -168,11 +176,11 @@ public class AuthorizationServerConfig {
 		return OAuth2AuthorizationServerConfiguration.jwtDecoder(jwkSource);
 	}
 
+	// the 2048-bit key is generated when the first token is issued or checked, not during startup
 	@Bean
 	public JWKSource<SecurityContext> jwkSource() {
-		RSAKey rsaKey = generateRsa();
-		JWKSet jwkSet = new JWKSet(rsaKey);
-		return (jwkSelector, securityContext) -> jwkSelector.select(jwkSet);
+		SingletonSupplier<JWKSet> jwkSet = SingletonSupplier.of(() -> new JWKSet(generateRsa()));
+		return (jwkSelector, securityContext) -> jwkSelector.select(jwkSet.obtain());
 	}
 
 	private static RSAKey generateRsa() {
@@ -0,0 +1,32 @@
+package com.dscommerce.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.dscommerce.services.CatalogCacheService;
+
+@Configuration
+@ConditionalOnProperty(name = "catalog-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CatalogCacheConfig {
+
+	// after the security filters, so CORS and token checks still apply to hits
+	@Bean
+	FilterRegistrationBean<CatalogCacheFilter> catalogCacheFilter(CatalogCacheService cache,
+			@Value("${catalog-cache.max-page:4}") int maxPage,
+			@Value("${catalog-cache.max-page-size:100}") int maxPageSize,
+			@Value("${spring.data.web.pageable.default-page-size:20}") int defaultPageSize,
+			@Value("${replica.enabled:false}") boolean replicaEnabled,
+			PlatformTransactionManager transactionManager) {
+		// a replica may not have the write that just dropped the entries, misses are rendered on the primary
+		TransactionTemplate primary = replicaEnabled ? new TransactionTemplate(transactionManager) : null;
+		FilterRegistrationBean<CatalogCacheFilter> bean = new FilterRegistrationBean<>(
+				new CatalogCacheFilter(cache, maxPage, maxPageSize, defaultPageSize, primary));
+		bean.addUrlPatterns(CatalogCacheService.PRODUCTS, CatalogCacheService.CATEGORIES);
+		return bean;
+	}
+}
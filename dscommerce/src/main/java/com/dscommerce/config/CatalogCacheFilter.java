@@ -0,0 +1,204 @@
+package com.dscommerce.config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.dscommerce.services.CatalogCacheService;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Serves the hot catalog responses from {@link CatalogCacheService}: the first
+ * pages of GET /products in the default order and without filters, and GET
+ * /categories. A hit is written straight to the response, gzipped when the
+ * client accepts it, without reaching the controllers. Any other request goes
+ * through as usual. With a read replica, a miss is rendered in a read-write
+ * transaction so its reads join it on the primary: the replica may not have
+ * applied the write that just invalidated the entry.
+ */
+public class CatalogCacheFilter extends OncePerRequestFilter {
+
+	private static final List<MediaType> BINARY = List.of(MediaType.APPLICATION_CBOR,
+			MediaType.parseMediaType("application/x-jackson-smile"));
+
+	private final CatalogCacheService cache;
+	private final int maxPage;
+	private final int maxPageSize;
+	private final int defaultPageSize;
+	// null without a replica, the reads already go to the primary
+	private final TransactionTemplate primary;
+
+	public CatalogCacheFilter(CatalogCacheService cache, int maxPage, int maxPageSize, int defaultPageSize,
+			TransactionTemplate primary) {
+		this.cache = cache;
+		this.maxPage = maxPage;
+		this.maxPageSize = maxPageSize;
+		this.defaultPageSize = defaultPageSize;
+		this.primary = primary;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		String key = keyOf(request);
+		if (key == null) {
+			chain.doFilter(request, response);
+			return;
+		}
+		response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		CatalogCacheService.Entry entry = cache.find(key);
+		if (entry != null) {
+			boolean gzip = acceptsGzip(request);
+			byte[] body = gzip ? entry.gzip() : entry.json();
+			response.setStatus(HttpServletResponse.SC_OK);
+			response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+			if (gzip) {
+				response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+			}
+			response.setContentLength(body.length);
+			response.getOutputStream().write(body);
+			return;
+		}
+
+		long generation = cache.generation();
+		ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+		renderOnPrimary(request, wrapper, chain);
+		if (wrapper.getStatus() == HttpServletResponse.SC_OK && isJson(wrapper.getContentType())) {
+			cache.store(key, generation, wrapper.getContentAsByteArray());
+		}
+		wrapper.copyBodyToResponse();
+	}
+
+	private void renderOnPrimary(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		if (primary == null) {
+			chain.doFilter(request, response);
+			return;
+		}
+		try {
+			primary.executeWithoutResult(status -> {
+				// nothing is written; rolling back also keeps a failure inside from turning into a commit error
+				status.setRollbackOnly();
+				try {
+					chain.doFilter(request, response);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				} catch (ServletException e) {
+					throw new RenderException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		} catch (RenderException e) {
+			throw e.getCause();
+		}
+	}
+
+	// the same key for every request that renders the same bytes, null when not cached
+	private String keyOf(HttpServletRequest request) {
+		if (!"GET".equals(request.getMethod()) || !acceptsJson(request)) {
+			return null;
+		}
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		if (path.equals(CatalogCacheService.CATEGORIES)) {
+			return request.getQueryString() == null ? path : null;
+		}
+		if (!path.equals(CatalogCacheService.PRODUCTS)) {
+			return null;
+		}
+		int page = 0;
+		int size = defaultPageSize;
+		for (Map.Entry<String, String[]> param : request.getParameterMap().entrySet()) {
+			if (param.getValue().length != 1) {
+				return null;
+			}
+			String value = param.getValue()[0];
+			switch (param.getKey()) {
+				case "name" -> {
+					if (!value.isBlank()) {
+						return null;
+					}
+				}
+				case "page" -> page = parse(value, 0, maxPage);
+				case "size" -> size = parse(value, 1, maxPageSize);
+				default -> {
+					return null;
+				}
+			}
+			if (page < 0 || size < 0) {
+				return null;
+			}
+		}
+		return path + "?page=" + page + "&size=" + size;
+	}
+
+	private static int parse(String value, int min, int max) {
+		try {
+			int number = Integer.parseInt(value);
+			return number >= min && number <= max ? number : -1;
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	// JSON would be negotiated; callers asking for CBOR or Smile go through the controllers
+	private static boolean acceptsJson(HttpServletRequest request) {
+		String accept = request.getHeader(HttpHeaders.ACCEPT);
+		if (accept == null) {
+			return true;
+		}
+		try {
+			List<MediaType> types = MediaType.parseMediaTypes(accept);
+			return types.stream().anyMatch(type -> type.includes(MediaType.APPLICATION_JSON))
+					&& types.stream().noneMatch(type -> !type.isWildcardSubtype() && BINARY.stream().anyMatch(type::isCompatibleWith));
+		} catch (InvalidMediaTypeException e) {
+			return false;
+		}
+	}
+
+	private static boolean acceptsGzip(HttpServletRequest request) {
+		String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+		if (acceptEncoding == null) {
+			return false;
+		}
+		for (String coding : acceptEncoding.split(",")) {
+			String[] parts = coding.trim().split(";");
+			if (parts[0].trim().equalsIgnoreCase("gzip")) {
+				return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+			}
+		}
+		return false;
+	}
+
+	private static boolean isJson(String contentType) {
+		try {
+			return contentType != null && MediaType.APPLICATION_JSON.includes(MediaType.parseMediaType(contentType));
+		} catch (InvalidMediaTypeException e) {
+			return false;
+		}
+	}
+
+	private static class RenderException extends RuntimeException {
+
+		RenderException(ServletException cause) {
+			super(cause);
+		}
+
+		@Override
+		public synchronized ServletException getCause() {
+			return (ServletException) super.getCause();
+		}
+	}
+}
@@ -0,0 +1,20 @@
+package com.dscommerce.config;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+public class FlywayConfig {
+
+	// dev and test start from an empty, freshly seeded schema, like create-drop did
+	@Bean
+	@Profile({"dev", "test"})
+	public FlywayMigrationStrategy cleanMigrateStrategy() {
+		return flyway -> {
+			flyway.clean();
+			flyway.migrate();
+		};
+	}
+}
@@ -0,0 +1,65 @@
+package com.dscommerce.config;
+
+import java.lang.invoke.MethodHandles;
+
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.dscommerce.dto.FieldSelection;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * Jackson setup shared by every message converter. Besides JSON, internal
+ * callers can use {@code application/cbor} and {@code application/x-jackson-smile},
+ * picked through Accept and Content-Type. JSON stays the default. The binary
+ * formats use the same DTOs as JSON, so there is no separate schema to keep in
+ * sync.
+ */
+@Configuration
+public class MessageConverterConfig {
+
+	private static final String DTO_PACKAGE = FieldSelection.class.getPackageName();
+
+	// DTO getters and setters are called through generated lambdas instead of reflection.
+	// Only for our own plain DTOs: a null lookup leaves a class to reflection, e.g. page
+	// types whose getters are declared on package-private Spring Data classes.
+	@Bean
+	public BlackbirdModule blackbirdModule() {
+		return new BlackbirdModule(type -> {
+			if (!type.getPackageName().equals(DTO_PACKAGE) || type.getSuperclass() != Object.class) {
+				return null;
+			}
+			try {
+				return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+			} catch (IllegalAccessException e) {
+				return null;
+			}
+		});
+	}
+
+	// DTOs that fields= can narrow are written in full unless a response sets the filter
+	@Bean
+	public Jackson2ObjectMapperBuilderCustomizer fieldSelectionCustomizer() {
+		return builder -> builder.filters(new SimpleFilterProvider()
+				.setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+	}
+
+	// the builder carries the spring.jackson settings, only the encoding differs from JSON
+	@Bean
+	public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+	}
+
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+	}
+}
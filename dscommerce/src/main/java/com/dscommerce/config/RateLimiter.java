@@ -0,0 +1,84 @@
+package com.dscommerce.config;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets by key (client IP, access token, OAuth2 client id) holding up
+ * to capacity requests and refilling at perSecond. A bucket is one AtomicLong
+ * with the time at which it is full again (generic cell rate algorithm),
+ * updated by compare-and-set, so callers never block each other. Once there
+ * are maxKeys buckets, those that are full again are dropped, they would
+ * behave exactly like a new one. If too few are full, as under a flood of new
+ * keys, the ones closest to full go too until a tenth of the room is free, so
+ * the map stays bounded and the scan runs once per maxKeys / 10 new keys.
+ */
+public class RateLimiter {
+
+	private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+	private final AtomicBoolean evicting = new AtomicBoolean();
+	private final long intervalNanos;
+	private final long burstNanos;
+	private final int maxKeys;
+	private final int evictTo;
+
+	public RateLimiter(int capacity, double perSecond, int maxKeys) {
+		this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / perSecond);
+		this.burstNanos = intervalNanos * capacity;
+		this.maxKeys = maxKeys;
+		this.evictTo = maxKeys - Math.max(1, maxKeys / 10);
+	}
+
+	// 0 when the request may go ahead, otherwise the nanoseconds until it could
+	public long tryAcquire(String key) {
+		long now = System.nanoTime();
+		AtomicLong bucket = buckets.get(key);
+		if (bucket == null) {
+			if (buckets.size() >= maxKeys) {
+				evict(now);
+			}
+			AtomicLong fresh = new AtomicLong(now);
+			bucket = buckets.putIfAbsent(key, fresh);
+			if (bucket == null) {
+				bucket = fresh;
+			}
+		}
+		while (true) {
+			long full = bucket.get();
+			long next = (full - now > 0 ? full : now) + intervalNanos;
+			long excess = next - now - burstNanos;
+			if (excess > 0) {
+				return excess;
+			}
+			if (bucket.compareAndSet(full, next)) {
+				return 0;
+			}
+		}
+	}
+
+	private void evict(long now) {
+		if (evicting.compareAndSet(false, true)) {
+			try {
+				buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+				int excess = buckets.size() - evictTo;
+				if (excess > 0) {
+					// a dropped bucket forgets what its key owed, the least for those nearly full;
+					// sorted on a snapshot, the buckets keep changing meanwhile
+					buckets.entrySet().stream()
+							.map(e -> Map.entry(e.getKey(), e.getValue().get()))
+							.sorted(Comparator.comparingLong(e -> e.getValue() - now))
+							.limit(excess)
+							.map(Map.Entry::getKey)
+							.toList()
+							.forEach(buckets::remove);
+				}
+			} finally {
+				evicting.set(false);
+			}
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package com.dscommerce.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * With replica.enabled, read-only transactions run on a replica and everything
+ * else on the primary, each with its own Hikari pool. The primary is the pool
+ * Boot would build from spring.datasource; the replica takes its url and
+ * credentials from replica.* and its pool settings from replica.hikari.
+ * Connections are only fetched when the first statement runs, by then the
+ * transaction has marked the connection read-only and the proxy picks the pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+	}
+
+	@Bean
+	@ConfigurationProperties("replica.hikari")
+	HikariDataSource replicaDataSource(@Value("${replica.url}") String url,
+			@Value("${replica.username}") String username,
+			@Value("${replica.password}") String password) {
+		HikariDataSource dataSource = DataSourceBuilder.create()
+				.type(HikariDataSource.class)
+				.url(url)
+				.username(username)
+				.password(password)
+				.build();
+		// a replica that is down at startup is served by the primary until it comes up
+		dataSource.setInitializationFailTimeout(-1);
+		return dataSource;
+	}
+
+	@Bean
+	ReplicaFailoverDataSource readOnlyDataSource(HikariDataSource replicaDataSource,
+			HikariDataSource primaryDataSource) {
+		return new ReplicaFailoverDataSource(replicaDataSource, primaryDataSource);
+	}
+
+	// the one JPA, Flyway and JdbcTemplate use
+	@Bean
+	@Primary
+	DataSource dataSource(HikariDataSource primaryDataSource, ReplicaFailoverDataSource readOnlyDataSource) {
+		LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+		dataSource.setReadOnlyDataSource(readOnlyDataSource);
+		return dataSource;
+	}
+}
@@ -0,0 +1,79 @@
+package com.dscommerce.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Where read-only transactions get their connection: the replica pool while
+ * the replica is up, the primary otherwise. A failed checkout marks the
+ * replica down at once and the read runs on the primary; {@link #checkReplica()}
+ * marks it up again once it hands out a valid connection.
+ */
+public class ReplicaFailoverDataSource extends AbstractDataSource {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReplicaFailoverDataSource.class);
+
+	private static final int VALID_TIMEOUT_SECONDS = 2;
+
+	private final DataSource replica;
+	private final DataSource primary;
+
+	private volatile boolean replicaUp = true;
+
+	public ReplicaFailoverDataSource(DataSource replica, DataSource primary) {
+		this.replica = replica;
+		this.primary = primary;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		if (replicaUp) {
+			try {
+				return replica.getConnection();
+			} catch (SQLException e) {
+				markDown(e);
+			}
+		}
+		return primary.getConnection();
+	}
+
+	// both pools are configured with their own credentials
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		throw new SQLFeatureNotSupportedException("Connections come from the configured pools");
+	}
+
+	@Scheduled(fixedDelayString = "${replica.health-check-interval:5000}")
+	public void checkReplica() {
+		try (Connection connection = replica.getConnection()) {
+			if (!connection.isValid(VALID_TIMEOUT_SECONDS)) {
+				throw new SQLException("Replica connection is not valid");
+			}
+			if (!replicaUp) {
+				replicaUp = true;
+				logger.info("Replica is back, read-only transactions use it again");
+			}
+		} catch (SQLException e) {
+			markDown(e);
+		}
+	}
+
+	public boolean isReplicaUp() {
+		return replicaUp;
+	}
+
+	private void markDown(SQLException e) {
+		if (replicaUp) {
+			replicaUp = false;
+			logger.warn("Replica unavailable, read-only transactions use the primary: {}", e.getMessage());
+		}
+	}
+}
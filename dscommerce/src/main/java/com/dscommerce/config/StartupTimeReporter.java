@@ -0,0 +1,32 @@
+package com.dscommerce.config;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+/**
+ * Logs once how long after the JVM was launched the first request was
+ * answered, which is what a new instance behind the load balancer is waiting
+ * for. Spring Boot's own "Started ... in" line stops at context refresh.
+ */
+@Component
+public class StartupTimeReporter {
+
+	private static final Logger logger = LoggerFactory.getLogger(StartupTimeReporter.class);
+
+	private final AtomicBoolean reported = new AtomicBoolean();
+
+	@EventListener
+	public void onRequestHandled(ServletRequestHandledEvent event) {
+		if (reported.compareAndSet(false, true)) {
+			long millis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+			logger.info("First request ({} {}) answered {} ms after JVM start", event.getMethod(),
+					event.getRequestUrl(), millis);
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package com.dscommerce.controllers;
+
+import com.dscommerce.dto.CategorySalesDTO;
+import com.dscommerce.dto.DailySalesDTO;
+import com.dscommerce.dto.ProductSalesDTO;
+import com.dscommerce.services.SalesAnalyticsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping(value = "/analytics/sales")
+public class AnalyticsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsController.class);
+
+    private static final int MAX_TOP_PRODUCTS = 100;
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(value = "/daily")
+    public ResponseEntity<List<DailySalesDTO>> findDaily(
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        logger.info("GET /analytics/sales/daily - from {} to {}", from, to);
+        return ResponseEntity.ok(salesAnalyticsService.findDaily(from, to));
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(value = "/products")
+    public ResponseEntity<List<ProductSalesDTO>> findByProduct() {
+        logger.info("GET /analytics/sales/products - sales by product");
+        return ResponseEntity.ok(salesAnalyticsService.findByProduct());
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(value = "/categories")
+    public ResponseEntity<List<CategorySalesDTO>> findByCategory() {
+        logger.info("GET /analytics/sales/categories - sales by category");
+        return ResponseEntity.ok(salesAnalyticsService.findByCategory());
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(value = "/top-products")
+    public ResponseEntity<List<ProductSalesDTO>> findTopProducts(
+            @RequestParam(name = "limit", defaultValue = "10") int limit,
+            @RequestParam(name = "by", defaultValue = "revenue") String by) {
+        logger.info("GET /analytics/sales/top-products - top {} by {}", limit, by);
+        int size = Math.max(1, Math.min(limit, MAX_TOP_PRODUCTS));
+        return ResponseEntity.ok(salesAnalyticsService.findTopProducts(size, "units".equalsIgnoreCase(by)));
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(value = "/rebuild")
+    public ResponseEntity<Void> rebuild() {
+        logger.info("POST /analytics/sales/rebuild - rebuilding sales analytics");
+        salesAnalyticsService.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+}
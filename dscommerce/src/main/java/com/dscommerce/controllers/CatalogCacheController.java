@@ -0,0 +1,38 @@
+package com.dscommerce.controllers;
+
+import com.dscommerce.dto.CatalogCacheStatsDTO;
+import com.dscommerce.services.CatalogCacheService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(value = "/catalog-cache")
+public class CatalogCacheController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogCacheController.class);
+
+    @Autowired
+    private CatalogCacheService catalogCacheService;
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping
+    public ResponseEntity<CatalogCacheStatsDTO> findStats() {
+        logger.info("GET /catalog-cache - finding catalog cache stats");
+        return ResponseEntity.ok(catalogCacheService.getStats());
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @DeleteMapping
+    public ResponseEntity<Void> clear() {
+        logger.info("DELETE /catalog-cache - clearing the catalog cache");
+        catalogCacheService.clear();
+        return ResponseEntity.noContent().build();
+    }
+}
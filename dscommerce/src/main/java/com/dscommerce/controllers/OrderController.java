@@ -1,12 +1,22 @@
 package com.dscommerce.controllers;
 
+import com.dscommerce.dto.BulkDeleteDTO;
+import com.dscommerce.dto.FieldSelection;
 import com.dscommerce.dto.OrderDTO;
+import com.dscommerce.dto.OrderStatsDTO;
+import com.dscommerce.dto.OrderSummaryDTO;
+import com.dscommerce.services.BulkDeleteService;
+import com.dscommerce.services.IdempotencyService;
+import com.dscommerce.services.OrderCheckoutService;
 import com.dscommerce.services.OrderService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
@@ -23,27 +33,41 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private OrderCheckoutService orderCheckoutService;
+
+    @Autowired
+    private BulkDeleteService bulkDeleteService;
+
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @GetMapping
-    public ResponseEntity<List<OrderDTO>> findAll() {
+    public ResponseEntity<Page<OrderSummaryDTO>> findAll(Pageable pageable) {
         logger.info("GET /orders - finding all orders");
-        List<OrderDTO> dto = orderService.findAll();
+        Page<OrderSummaryDTO> dto = orderService.findAll(pageable);
         return ResponseEntity.ok(dto);
     }
 
     @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_CLIENT')")
     @GetMapping(value = "/{id}")
-    public ResponseEntity<OrderDTO> findById(@PathVariable Long id) {
+    public ResponseEntity<MappingJacksonValue> findById(@PathVariable Long id,
+                                                        @RequestParam(name = "fields", required = false) String fields) {
         logger.info("GET /orders/{} - finding one order by id ", id);
-        OrderDTO dto = orderService.findById(id);
-        return ResponseEntity.ok(dto);
+        FieldSelection selection = FieldSelection.parse(fields, OrderDTO.FIELDS);
+        OrderDTO dto = orderService.findById(id, selection);
+        return ResponseEntity.ok(selection.apply(dto));
     }
 
     @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_CLIENT')")
     @PostMapping
-    public ResponseEntity<OrderDTO> insert(@Valid @RequestBody OrderDTO dto) {
+    public ResponseEntity<OrderDTO> insert(@Valid @RequestBody OrderDTO dto,
+                                           @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
         logger.info("POST /orders - creating a order {}", dto.getClient());
-        dto = orderService.insert(dto);
+        dto = idempotencyKey == null
+                ? orderCheckoutService.insert(dto)
+                : idempotencyService.insertOrder(dto, idempotencyKey);
         URI uri = ServletUriComponentsBuilder
                 .fromCurrentRequestUri()
                 .path("/{id}")
@@ -53,10 +77,50 @@ public class OrderController {
     }
 
     @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(value = "/stats")
+    public ResponseEntity<OrderStatsDTO> findStats() {
+        logger.info("GET /orders/stats - finding order status stats");
+        OrderStatsDTO dto = orderService.findStats();
+        return ResponseEntity.ok(dto);
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_CLIENT')")
+    @PostMapping(value = "/{id}/pay")
+    public ResponseEntity<OrderDTO> pay(@PathVariable Long id) {
+        logger.info("POST /orders/{}/pay - paying order by id", id);
+        OrderDTO dto = orderService.pay(id);
+        return ResponseEntity.ok(dto);
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(value = "/{id}/ship")
+    public ResponseEntity<OrderDTO> ship(@PathVariable Long id) {
+        logger.info("POST /orders/{}/ship - shipping order by id", id);
+        OrderDTO dto = orderService.ship(id);
+        return ResponseEntity.ok(dto);
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(value = "/{id}/deliver")
+    public ResponseEntity<OrderDTO> deliver(@PathVariable Long id) {
+        logger.info("POST /orders/{}/deliver - delivering order by id", id);
+        OrderDTO dto = orderService.deliver(id);
+        return ResponseEntity.ok(dto);
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_CLIENT')")
+    @PostMapping(value = "/{id}/cancel")
+    public ResponseEntity<OrderDTO> cancel(@PathVariable Long id) {
+        logger.info("POST /orders/{}/cancel - canceling order by id", id);
+        OrderDTO dto = orderService.cancel(id);
+        return ResponseEntity.ok(dto);
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_CLIENT')")
     @PutMapping(value = "/{id}")
     public ResponseEntity<OrderDTO> update(@PathVariable Long id,
                                              @Valid @RequestBody OrderDTO dto) {
-        logger.info("PUT /orders/{} - updating order {} by id", id, dto.getClient());
+        logger.info("PUT /orders/{} - updating order items by id", id);
         dto = orderService.update(id, dto);
         return ResponseEntity.ok(dto);
     }
@@ -68,4 +132,12 @@ public class OrderController {
         orderService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(value = "/bulk-delete")
+    public ResponseEntity<BulkDeleteDTO> bulkDelete(@RequestBody List<Long> ids) {
+        logger.info("POST /orders/bulk-delete - deleting {} orders", ids.size());
+        BulkDeleteDTO dto = bulkDeleteService.deleteOrders(ids);
+        return ResponseEntity.ok(dto);
+    }
 }
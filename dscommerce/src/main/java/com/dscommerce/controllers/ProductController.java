@@ -1,21 +1,29 @@
 package com.dscommerce.controllers;
 
+import com.dscommerce.dto.BulkDeleteDTO;
+import com.dscommerce.dto.FieldSelection;
+import com.dscommerce.dto.ProductBatchItemDTO;
 import com.dscommerce.dto.ProductDTO;
-import com.dscommerce.dto.ProductMinDTO;
+import com.dscommerce.dto.ProductPageDTO;
+import com.dscommerce.dto.ProductSuggestionDTO;
 import com.dscommerce.entities.Product;
+import com.dscommerce.services.BulkDeleteService;
 import com.dscommerce.services.ProductService;
+import com.dscommerce.services.ProductSuggestService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.math.BigDecimal;
 import java.net.URI;
+import java.util.List;
 
 @RestController
 @RequestMapping(value = "/products")
@@ -26,20 +34,46 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductSuggestService productSuggestService;
+
+    @Autowired
+    private BulkDeleteService bulkDeleteService;
+
     @GetMapping
-    public ResponseEntity<Page<ProductMinDTO>> findAll(
+    public ResponseEntity<ProductPageDTO> findAll(
             @RequestParam(name = "name", defaultValue = "") String name,
+            @RequestParam(name = "categoryIds", required = false) List<Long> categoryIds,
+            @RequestParam(name = "minPrice", required = false) BigDecimal minPrice,
+            @RequestParam(name = "maxPrice", required = false) BigDecimal maxPrice,
             Pageable pageable) {
         logger.info("GET /products?size=21&page=0&sort=name,desc&name=pc%20gamer - finding all products");
-        Page<ProductMinDTO> dto = productService.findAll(name, pageable);
+        ProductPageDTO dto = productService.findAll(name, categoryIds, minPrice, maxPrice, pageable);
+        return ResponseEntity.ok(dto);
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<ProductBatchItemDTO>> findAllByIds(@RequestParam(name = "ids") List<Long> ids) {
+        logger.info("GET /products?ids={} - finding products by id list", ids);
+        List<ProductBatchItemDTO> dto = productService.findAllByIds(ids);
+        return ResponseEntity.ok(dto);
+    }
+
+    @GetMapping(value = "/suggest")
+    public ResponseEntity<List<ProductSuggestionDTO>> suggest(
+            @RequestParam(name = "q", defaultValue = "") String query,
+            @RequestParam(name = "limit", defaultValue = "5") Integer limit) {
+        List<ProductSuggestionDTO> dto = productSuggestService.suggest(query, limit);
         return ResponseEntity.ok(dto);
     }
 
     @GetMapping(value = "/{id}")
-    public ResponseEntity<ProductDTO> findById(@PathVariable Long id) {
+    public ResponseEntity<MappingJacksonValue> findById(@PathVariable Long id,
+                                                        @RequestParam(name = "fields", required = false) String fields) {
         logger.info("GET /products/{} - finding one product by id ", id);
-        ProductDTO dto = productService.findById(id);
-        return ResponseEntity.ok(dto);
+        FieldSelection selection = FieldSelection.parse(fields, ProductDTO.FIELDS);
+        ProductDTO dto = productService.findById(id, selection);
+        return ResponseEntity.ok(selection.apply(dto));
     }
 
     @PreAuthorize("hasRole('ROLE_ADMIN')")
@@ -71,4 +105,12 @@ public class ProductController {
         productService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(value = "/bulk-delete")
+    public ResponseEntity<BulkDeleteDTO> bulkDelete(@RequestBody List<Long> ids) {
+        logger.info("POST /products/bulk-delete - deleting {} products", ids.size());
+        BulkDeleteDTO dto = bulkDeleteService.deleteProducts(ids);
+        return ResponseEntity.ok(dto);
+    }
 }
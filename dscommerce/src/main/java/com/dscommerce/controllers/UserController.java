@@ -1,12 +1,15 @@
 package com.dscommerce.controllers;
 
+import com.dscommerce.dto.OrderHistoryDTO;
 import com.dscommerce.dto.UserDTO;
+import com.dscommerce.services.OrderService;
 import com.dscommerce.services.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -16,6 +19,9 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private OrderService orderService;
+
     @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_CLIENT')")
     @GetMapping(value = "/me")
     public ResponseEntity<UserDTO> getMe() {
@@ -23,4 +29,13 @@ public class UserController {
         return ResponseEntity.ok(dto);
     }
 
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_CLIENT')")
+    @GetMapping(value = "/me/orders")
+    public ResponseEntity<OrderHistoryDTO> getMyOrders(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size) {
+        OrderHistoryDTO dto = orderService.findMyOrders(cursor, size);
+        return ResponseEntity.ok(dto);
+    }
+
 }
@@ -2,82 +2,83 @@ package com.dscommerce.controllers.exceptions.handler;
 
 import com.dscommerce.controllers.exceptions.StandardError;
 import com.dscommerce.dto.exceptions.ValidationError;
+import com.dscommerce.services.exceptions.BadRequestException;
+import com.dscommerce.services.exceptions.ConflictException;
 import com.dscommerce.services.exceptions.DatabaseException;
 import com.dscommerce.services.exceptions.ForbiddenException;
 import com.dscommerce.services.exceptions.ResourceNotFoundException;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PessimisticLockException;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.time.Instant;
 
+// the status comes from @ResponseStatus, so an error allocates its body and nothing else
 @RestControllerAdvice
 public class ResourceExceptionHandler {
 
     @ExceptionHandler(ResourceNotFoundException.class)
-    public ResponseEntity<StandardError> resourceNotFound(
-            ResourceNotFoundException e,
-            HttpServletRequest request) {
-        String error = "Resource not found";
-        HttpStatus status = HttpStatus.NOT_FOUND;
-        StandardError err = new StandardError(
-                Instant.now(),
-                status.value(),
-                error,
-                e.getMessage(),
-                request.getRequestURI());
-        return ResponseEntity.status(status).body(err);
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public StandardError resourceNotFound(ResourceNotFoundException e, HttpServletRequest request) {
+        return error(HttpStatus.NOT_FOUND, "Resource not found", e.getMessage(), request);
     }
 
     @ExceptionHandler(DatabaseException.class)
-    public ResponseEntity<StandardError> database(
-            DatabaseException e,
-            HttpServletRequest request) {
-        String error = "Database error";
-        HttpStatus status = HttpStatus.BAD_REQUEST;
-        StandardError err = new StandardError(
-                Instant.now(),
-                status.value(),
-                error,
-                e.getMessage(),
-                request.getRequestURI());
-        return ResponseEntity.status(status).body(err);
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public StandardError database(DatabaseException e, HttpServletRequest request) {
+        return error(HttpStatus.BAD_REQUEST, "Database error", e.getMessage(), request);
+    }
+
+    @ExceptionHandler(BadRequestException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public StandardError badRequest(BadRequestException e, HttpServletRequest request) {
+        return error(HttpStatus.BAD_REQUEST, "Bad request", e.getMessage(), request);
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public StandardError conflict(ConflictException e, HttpServletRequest request) {
+        return error(HttpStatus.CONFLICT, "Conflict", e.getMessage(), request);
+    }
+
+    // EntityManager.lock is not behind a repository, its JPA exceptions arrive untranslated
+    @ExceptionHandler({OptimisticLockingFailureException.class, PessimisticLockingFailureException.class,
+            OptimisticLockException.class, PessimisticLockException.class})
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public StandardError optimisticLocking(RuntimeException e, HttpServletRequest request) {
+        return error(HttpStatus.CONFLICT, "Conflict",
+                "Resource was changed by another request, reload it and try again", request);
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<ValidationError> methodArgumentNotValid(
-            MethodArgumentNotValidException e,
-            HttpServletRequest request) {
-        String error = "Invalid data";
-        HttpStatus status = HttpStatus.UNPROCESSABLE_ENTITY;
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    public ValidationError methodArgumentNotValid(MethodArgumentNotValidException e, HttpServletRequest request) {
         ValidationError validationError = new ValidationError(
                 Instant.now(),
-                status.value(),
-                error,
+                HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                "Invalid data",
                 request.getRequestURI());
         for (FieldError fieldError : e.getBindingResult().getFieldErrors()) {
             validationError.addError(fieldError.getField(), fieldError.getDefaultMessage());
         }
-
-        return ResponseEntity.status(status).body(validationError);
+        return validationError;
     }
 
     @ExceptionHandler(ForbiddenException.class)
-    public ResponseEntity<StandardError> forbidden(
-            ForbiddenException e,
-            HttpServletRequest request) {
-        String error = "Unauthorized";
-        HttpStatus status = HttpStatus.FORBIDDEN;
-        StandardError err = new StandardError(
-                Instant.now(),
-                status.value(),
-                error,
-                e.getMessage(),
-                request.getRequestURI());
-        return ResponseEntity.status(status).body(err);
+    @ResponseStatus(HttpStatus.FORBIDDEN)
+    public StandardError forbidden(ForbiddenException e, HttpServletRequest request) {
+        return error(HttpStatus.FORBIDDEN, "Unauthorized", e.getMessage(), request);
+    }
+
+    private static StandardError error(HttpStatus status, String error, String message, HttpServletRequest request) {
+        return new StandardError(Instant.now(), status.value(), error, message, request.getRequestURI());
     }
 }
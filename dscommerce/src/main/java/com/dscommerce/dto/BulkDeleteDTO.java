@@ -0,0 +1,28 @@
+package com.dscommerce.dto;
+
+public class BulkDeleteDTO {
+
+    private int requested;
+    private int deleted;
+    private int skipped;
+
+    public BulkDeleteDTO() {}
+
+    public BulkDeleteDTO(int requested, int deleted) {
+        this.requested = requested;
+        this.deleted = deleted;
+        this.skipped = requested - deleted;
+    }
+
+    public int getRequested() {
+        return requested;
+    }
+
+    public int getDeleted() {
+        return deleted;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+}
@@ -0,0 +1,46 @@
+package com.dscommerce.dto;
+
+public class CatalogCacheStatsDTO {
+
+    private long hits;
+    private long misses;
+    private long invalidations;
+    private int entries;
+    private long bytes;
+    private long gzipBytes;
+
+    public CatalogCacheStatsDTO() {}
+
+    public CatalogCacheStatsDTO(long hits, long misses, long invalidations, int entries, long bytes, long gzipBytes) {
+        this.hits = hits;
+        this.misses = misses;
+        this.invalidations = invalidations;
+        this.entries = entries;
+        this.bytes = bytes;
+        this.gzipBytes = gzipBytes;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    public int getEntries() {
+        return entries;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getGzipBytes() {
+        return gzipBytes;
+    }
+}
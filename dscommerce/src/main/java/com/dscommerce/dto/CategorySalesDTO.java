@@ -0,0 +1,30 @@
+package com.dscommerce.dto;
+
+import java.math.BigDecimal;
+
+public class CategorySalesDTO {
+
+    private Long categoryId;
+    private Long units;
+    private BigDecimal revenue;
+
+    public CategorySalesDTO() {}
+
+    public CategorySalesDTO(Long categoryId, Long units, BigDecimal revenue) {
+        this.categoryId = categoryId;
+        this.units = units;
+        this.revenue = revenue;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public Long getUnits() {
+        return units;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+}
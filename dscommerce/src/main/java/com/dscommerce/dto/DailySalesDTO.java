@@ -0,0 +1,31 @@
+package com.dscommerce.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class DailySalesDTO {
+
+    private LocalDate day;
+    private Long units;
+    private BigDecimal revenue;
+
+    public DailySalesDTO() {}
+
+    public DailySalesDTO(LocalDate day, Long units, BigDecimal revenue) {
+        this.day = day;
+        this.units = units;
+        this.revenue = revenue;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public Long getUnits() {
+        return units;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+}
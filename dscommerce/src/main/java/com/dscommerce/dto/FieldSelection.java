@@ -0,0 +1,71 @@
+package com.dscommerce.dto;
+
+import com.dscommerce.services.exceptions.BadRequestException;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The top-level properties a caller asked for with {@code fields=}, for
+ * example {@code fields=id,name,price}. Without the parameter every property
+ * is selected. DTOs that can be narrowed carry {@code @JsonFilter(FILTER)}.
+ */
+public final class FieldSelection {
+
+    public static final String FILTER = "fields";
+
+    public static final FieldSelection ALL = new FieldSelection(null);
+
+    // null when every property is selected
+    private final Set<String> fields;
+
+    private FieldSelection(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    public static FieldSelection parse(String fields, Set<String> allowed) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new BadRequestException("Unknown field '" + name + "', allowed fields: "
+                        + String.join(",", new TreeSet<>(allowed)));
+            }
+            selected.add(name);
+        }
+        return selected.isEmpty() ? ALL : new FieldSelection(Collections.unmodifiableSet(selected));
+    }
+
+    public boolean isAll() {
+        return fields == null;
+    }
+
+    public boolean includes(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    // the response body, serialized with only the selected properties
+    public MappingJacksonValue apply(Object body) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider().addFilter(FILTER, fields == null
+                ? SimpleBeanPropertyFilter.serializeAll()
+                : SimpleBeanPropertyFilter.filterOutAllExcept(fields)));
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return fields == null ? "all" : String.join(",", fields);
+    }
+}
@@ -3,20 +3,34 @@ package com.dscommerce.dto;
 import com.dscommerce.entities.Order;
 import com.dscommerce.entities.OrderItem;
 import com.dscommerce.entities.enums.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import jakarta.validation.constraints.NotEmpty;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
+@JsonFilter(FieldSelection.FILTER)
 public class OrderDTO {
 
+    // what GET /orders/{id}?fields= can select
+    public static final Set<String> FIELDS = Set.of("id", "moment", "orderStatus", "client", "payment", "version",
+            "total", "itemCount", "items");
+
     private Long id;
     private Instant moment;
     private OrderStatus orderStatus;
     private ClientDTO client;
     private PaymentDTO payment;
 
+    // sent back on update, a stale version is rejected
+    private Long version;
+
+    private BigDecimal total;
+    private Integer itemCount;
+
     @NotEmpty(message = "Order must have at least one item")
     private List<OrderItemDTO> items = new ArrayList<>();
 
@@ -34,6 +48,9 @@ public class OrderDTO {
         id = entity.getId();
         moment = entity.getMoment();
         orderStatus = entity.getStatus();
+        version = entity.getVersion();
+        total = entity.getTotal();
+        itemCount = entity.getItemCount();
         client = new ClientDTO(entity.getClient());
         if (entity.getPayment() != null) {
             payment = new PaymentDTO(entity.getPayment());
@@ -64,15 +81,31 @@ public class OrderDTO {
         return payment;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public List<OrderItemDTO> getItems() {
         return items;
     }
 
-    public Double getTotal() {
-        double sum = 0.0;
-        for (OrderItemDTO item : items) {
-            sum += item.getSubTotal();
-        }
-        return sum;
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public Integer getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(Integer itemCount) {
+        this.itemCount = itemCount;
     }
 }
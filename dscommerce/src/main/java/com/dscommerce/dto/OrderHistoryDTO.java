@@ -0,0 +1,26 @@
+package com.dscommerce.dto;
+
+import java.util.List;
+
+public class OrderHistoryDTO {
+
+    private List<OrderSummaryDTO> content;
+
+    // pass back as ?cursor= for the next page, null on the last one
+    private String nextCursor;
+
+    public OrderHistoryDTO() {}
+
+    public OrderHistoryDTO(List<OrderSummaryDTO> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<OrderSummaryDTO> getContent() {
+        return content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -2,22 +2,28 @@ package com.dscommerce.dto;
 
 import com.dscommerce.entities.OrderItem;
 
+import java.math.BigDecimal;
+
 public class OrderItemDTO {
 
     private Long productId;
     private String name;
-    private Double price;
+    private BigDecimal price;
     private Integer quantity;
     private String imgUrl;
 
+    // computed once here, not on every serialization
+    private BigDecimal subTotal;
+
     public OrderItemDTO(){}
 
-    public OrderItemDTO(Long productId, String name, Double price, Integer quantity, String imgUrl) {
+    public OrderItemDTO(Long productId, String name, BigDecimal price, Integer quantity, String imgUrl) {
         this.productId = productId;
         this.name = name;
         this.price = price;
         this.quantity = quantity;
         this.imgUrl = imgUrl;
+        this.subTotal = subTotalOf(price, quantity);
     }
 
     public OrderItemDTO(OrderItem entity) {
@@ -26,6 +32,7 @@ public class OrderItemDTO {
         price = entity.getPrice();
         quantity = entity.getQuantity();
         imgUrl = entity.getProduct().getImgUrl();
+        subTotal = subTotalOf(price, quantity);
     }
 
     public Long getProductId() {
@@ -36,7 +43,7 @@ public class OrderItemDTO {
         return name;
     }
 
-    public Double getPrice() {
+    public BigDecimal getPrice() {
         return price;
     }
 
@@ -48,7 +55,11 @@ public class OrderItemDTO {
         return imgUrl;
     }
 
-    public Double getSubTotal() {
-        return quantity * price;
+    public BigDecimal getSubTotal() {
+        return subTotal;
+    }
+
+    private static BigDecimal subTotalOf(BigDecimal price, Integer quantity) {
+        return price == null || quantity == null ? null : price.multiply(BigDecimal.valueOf(quantity));
     }
 }
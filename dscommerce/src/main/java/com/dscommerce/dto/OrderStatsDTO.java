@@ -0,0 +1,26 @@
+package com.dscommerce.dto;
+
+import com.dscommerce.entities.enums.OrderStatus;
+
+import java.util.Map;
+
+public class OrderStatsDTO {
+
+    private Map<OrderStatus, Long> transitions;
+    private long droppedEvents;
+
+    public OrderStatsDTO() {}
+
+    public OrderStatsDTO(Map<OrderStatus, Long> transitions, long droppedEvents) {
+        this.transitions = transitions;
+        this.droppedEvents = droppedEvents;
+    }
+
+    public Map<OrderStatus, Long> getTransitions() {
+        return transitions;
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents;
+    }
+}
@@ -0,0 +1,72 @@
+package com.dscommerce.dto;
+
+import com.dscommerce.entities.enums.OrderStatus;
+import com.dscommerce.projections.OrderSummaryProjection;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public class OrderSummaryDTO {
+
+    private Long id;
+    private Instant moment;
+    private OrderStatus orderStatus;
+    private ClientDTO client;
+    private BigDecimal total;
+    private Integer itemCount;
+
+    public OrderSummaryDTO() {}
+
+    public OrderSummaryDTO(Long id, Instant moment, OrderStatus orderStatus, ClientDTO client, BigDecimal total,
+                           Integer itemCount) {
+        this.id = id;
+        this.moment = moment;
+        this.orderStatus = orderStatus;
+        this.client = client;
+        this.total = total;
+        this.itemCount = itemCount;
+    }
+
+    public OrderSummaryDTO(OrderSummaryProjection projection) {
+        id = projection.getId();
+        moment = projection.getMoment();
+        orderStatus = projection.getStatus();
+        client = new ClientDTO(projection.getClientId(), projection.getClientName());
+        total = projection.getTotal();
+        itemCount = projection.getItemCount();
+    }
+
+    // for queries that leave the client name out because the caller already has it
+    public OrderSummaryDTO(OrderSummaryProjection projection, ClientDTO client) {
+        id = projection.getId();
+        moment = projection.getMoment();
+        orderStatus = projection.getStatus();
+        this.client = client;
+        total = projection.getTotal();
+        itemCount = projection.getItemCount();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Instant getMoment() {
+        return moment;
+    }
+
+    public OrderStatus getOrderStatus() {
+        return orderStatus;
+    }
+
+    public ClientDTO getClient() {
+        return client;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public Integer getItemCount() {
+        return itemCount;
+    }
+}
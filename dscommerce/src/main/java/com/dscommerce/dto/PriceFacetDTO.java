@@ -0,0 +1,28 @@
+package com.dscommerce.dto;
+
+public class PriceFacetDTO {
+
+    private Double min;
+    private Double max;
+    private Long count;
+
+    public PriceFacetDTO() {}
+
+    public PriceFacetDTO(Double min, Double max, Long count) {
+        this.min = min;
+        this.max = max;
+        this.count = count;
+    }
+
+    public Double getMin() {
+        return min;
+    }
+
+    public Double getMax() {
+        return max;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,28 @@
+package com.dscommerce.dto;
+
+public class ProductBatchItemDTO {
+
+    private Long id;
+    private boolean found;
+    private ProductDTO product;
+
+    public ProductBatchItemDTO() {}
+
+    public ProductBatchItemDTO(Long id, ProductDTO product) {
+        this.id = id;
+        this.found = product != null;
+        this.product = product;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public boolean isFound() {
+        return found;
+    }
+
+    public ProductDTO getProduct() {
+        return product;
+    }
+}
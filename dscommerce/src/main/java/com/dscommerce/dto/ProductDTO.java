@@ -2,14 +2,21 @@ package com.dscommerce.dto;
 
 import com.dscommerce.entities.Category;
 import com.dscommerce.entities.Product;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import jakarta.validation.constraints.*;
 import org.hibernate.validator.constraints.URL;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
+@JsonFilter(FieldSelection.FILTER)
 public class ProductDTO {
 
+    // what GET /products/{id}?fields= can select
+    public static final Set<String> FIELDS = Set.of("id", "name", "description", "price", "imgUrl", "stock", "categories");
+
     private Long id;
 
     @Size(min = 3, max = 80, message = "Character number must be between 3 and 80")
@@ -22,18 +29,22 @@ public class ProductDTO {
 
     @NotNull(message = "This field is required")
     @Positive(message = "Price must be positive")
-    private Double price;
+    @Digits(integer = 10, fraction = 2, message = "Price must have at most 2 decimal places")
+    private BigDecimal price;
 
     @NotBlank(message = "URL of image must not be empty")
     @URL(message = "Invalid URL")
     @Pattern(regexp = "^https://.*", message = "URL must be use HTTPS")
     private String imgUrl;
 
+    @PositiveOrZero(message = "Stock must not be negative")
+    private Integer stock;
+
     private List<CategoryDTO> categories = new ArrayList<>();
 
     public ProductDTO(){}
 
-    public ProductDTO(Long id, String name, String description, Double price, String imgUrl) {
+    public ProductDTO(Long id, String name, String description, BigDecimal price, String imgUrl) {
         this.id = id;
         this.name = name;
         this.description = description;
@@ -76,11 +87,11 @@ public class ProductDTO {
         this.description = description;
     }
 
-    public Double getPrice() {
+    public BigDecimal getPrice() {
         return price;
     }
 
-    public void setPrice(Double price) {
+    public void setPrice(BigDecimal price) {
         this.price = price;
     }
 
@@ -92,6 +103,14 @@ public class ProductDTO {
         this.imgUrl = imgUrl;
     }
 
+    public Integer getStock() {
+        return stock;
+    }
+
+    public void setStock(Integer stock) {
+        this.stock = stock;
+    }
+
     public List<CategoryDTO> getCategories() {
         return categories;
     }
@@ -0,0 +1,25 @@
+package com.dscommerce.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductFacetsDTO {
+
+    private List<CategoryFacetDTO> categories = new ArrayList<>();
+    private List<PriceFacetDTO> prices = new ArrayList<>();
+
+    public ProductFacetsDTO() {}
+
+    public ProductFacetsDTO(List<CategoryFacetDTO> categories, List<PriceFacetDTO> prices) {
+        this.categories = categories;
+        this.prices = prices;
+    }
+
+    public List<CategoryFacetDTO> getCategories() {
+        return categories;
+    }
+
+    public List<PriceFacetDTO> getPrices() {
+        return prices;
+    }
+}
@@ -0,0 +1,19 @@
+package com.dscommerce.dto;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+// Keeps the regular page JSON and adds the facet counts next to it
+public class ProductPageDTO extends PageImpl<ProductMinDTO> {
+
+    private final ProductFacetsDTO facets;
+
+    public ProductPageDTO(Page<ProductMinDTO> page, ProductFacetsDTO facets) {
+        super(page.getContent(), page.getPageable(), page.getTotalElements());
+        this.facets = facets;
+    }
+
+    public ProductFacetsDTO getFacets() {
+        return facets;
+    }
+}
@@ -0,0 +1,30 @@
+package com.dscommerce.dto;
+
+import java.math.BigDecimal;
+
+public class ProductSalesDTO {
+
+    private Long productId;
+    private Long units;
+    private BigDecimal revenue;
+
+    public ProductSalesDTO() {}
+
+    public ProductSalesDTO(Long productId, Long units, BigDecimal revenue) {
+        this.productId = productId;
+        this.units = units;
+        this.revenue = revenue;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Long getUnits() {
+        return units;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+}
@@ -3,6 +3,7 @@ package com.dscommerce.entities;
 import com.dscommerce.entities.enums.OrderStatus;
 import jakarta.persistence.*;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.HashSet;
 import java.util.Objects;
@@ -20,6 +21,13 @@ public class Order {
     private Instant moment;
     private OrderStatus status;
 
+    @Version
+    private Long version;
+
+    // sum of the items, kept in step with them by updateTotals()
+    private BigDecimal total;
+    private Integer itemCount;
+
     @ManyToOne
     @JoinColumn(name = "client_id")
     private User client;
@@ -64,6 +72,29 @@ public class Order {
         this.status = status;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public Integer getItemCount() {
+        return itemCount;
+    }
+
+    public void updateTotals() {
+        BigDecimal sum = BigDecimal.ZERO;
+        int count = 0;
+        for (OrderItem item : items) {
+            sum = sum.add(item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+            count += item.getQuantity();
+        }
+        total = sum;
+        itemCount = count;
+    }
+
     public User getClient() {
         return client;
     }
@@ -0,0 +1,67 @@
+package com.dscommerce.entities;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.Objects;
+
+@Entity
+@Table(name = "tb_order_archive")
+public class OrderArchive {
+
+    @Id
+    private Long id;
+
+    private Long clientId;
+
+    @Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
+    private Instant moment;
+
+    @Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
+    private Instant archivedAt;
+
+    // gzipped JSON of the order as OrderDTO
+    private byte[] payload;
+
+    public OrderArchive() {}
+
+    public OrderArchive(Long id, Long clientId, Instant moment, Instant archivedAt, byte[] payload) {
+        this.id = id;
+        this.clientId = clientId;
+        this.moment = moment;
+        this.archivedAt = archivedAt;
+        this.payload = payload;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getClientId() {
+        return clientId;
+    }
+
+    public Instant getMoment() {
+        return moment;
+    }
+
+    public Instant getArchivedAt() {
+        return archivedAt;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        OrderArchive that = (OrderArchive) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+}
@@ -1,10 +1,13 @@
 package com.dscommerce.entities;
 
 import com.dscommerce.entities.pk.OrderItemPk;
+import jakarta.persistence.Column;
 import jakarta.persistence.EmbeddedId;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.Objects;
 
 @Entity
@@ -14,15 +17,23 @@ public class OrderItem {
     @EmbeddedId
     private OrderItemPk id = new OrderItemPk();
 
+    // copy of the order's moment, the foreign key to the partitioned tb_order is (id, moment)
+    @Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
+    private Instant orderMoment;
+
     private Integer quantity;
-    private Double price;
+    private BigDecimal price;
+
+    // units taken from stock, zero while the product is not stock-tracked
+    private Integer reserved = 0;
 
     public OrderItem() {
     }
 
-    public OrderItem(Order order, Product product, Integer quantity, Double price) {
+    public OrderItem(Order order, Product product, Integer quantity, BigDecimal price) {
         id.setOrder(order);
         id.setProduct(product);
+        this.orderMoment = order.getMoment();
         this.quantity = quantity;
         this.price = price;
     }
@@ -33,6 +44,7 @@ public class OrderItem {
 
     public void setOrder(Order order) {
         id.setOrder(order);
+        orderMoment = order != null ? order.getMoment() : null;
     }
 
     public Product getProduct() {
@@ -51,14 +63,22 @@ public class OrderItem {
         this.quantity = quantity;
     }
 
-    public Double getPrice() {
+    public BigDecimal getPrice() {
         return price;
     }
 
-    public void setPrice(Double price) {
+    public void setPrice(BigDecimal price) {
         this.price = price;
     }
 
+    public Integer getReserved() {
+        return reserved;
+    }
+
+    public void setReserved(Integer reserved) {
+        this.reserved = reserved;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
@@ -21,12 +21,16 @@ public class Payment {
     @MapsId
     private Order order;
 
+    // copy of the order's moment, the foreign key to the partitioned tb_order is (id, moment)
+    @Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
+    private Instant orderMoment;
+
     public Payment() {}
 
     public Payment(Long id, Instant moment, Order order) {
         this.id = id;
         this.moment = moment;
-        this.order = order;
+        setOrder(order);
     }
 
     public Long getId() {
@@ -51,6 +55,7 @@ public class Payment {
 
     public void setOrder(Order order) {
         this.order = order;
+        orderMoment = order != null ? order.getMoment() : null;
     }
 
     @Override
@@ -2,6 +2,7 @@ package com.dscommerce.entities;
 
 import jakarta.persistence.*;
 
+import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
@@ -15,9 +16,12 @@ public class Product {
     private Long id;
     private String name;
 
+    // lowercased, accent-free copy of name used by the search query
+    private String nameNormalized;
+
     @Column(columnDefinition = "TEXT")
     private String description;
-    private Double price;
+    private BigDecimal price;
     private String imgUrl;
 
     @ManyToMany
@@ -32,7 +36,7 @@ public class Product {
 
     public Product() {}
 
-    public Product(Long id, String name, String description, Double price, String imgUrl) {
+    public Product(Long id, String name, String description, BigDecimal price, String imgUrl) {
         this.id = id;
         this.name = name;
         this.description = description;
@@ -56,6 +60,14 @@ public class Product {
         this.name = name;
     }
 
+    public String getNameNormalized() {
+        return nameNormalized;
+    }
+
+    public void setNameNormalized(String nameNormalized) {
+        this.nameNormalized = nameNormalized;
+    }
+
     public String getDescription() {
         return description;
     }
@@ -64,11 +76,11 @@ public class Product {
         this.description = description;
     }
 
-    public Double getPrice() {
+    public BigDecimal getPrice() {
         return price;
     }
 
-    public void setPrice(Double price) {
+    public void setPrice(BigDecimal price) {
         this.price = price;
     }
 
@@ -0,0 +1,54 @@
+package com.dscommerce.entities;
+
+import com.dscommerce.entities.pk.ProductStockPk;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+import java.util.Objects;
+
+@Entity
+@Table(name = "tb_product_stock")
+public class ProductStock {
+
+    @EmbeddedId
+    private ProductStockPk id = new ProductStockPk();
+
+    private Integer quantity;
+
+    public ProductStock() {}
+
+    public ProductStock(Long productId, Integer shard, Integer quantity) {
+        id.setProductId(productId);
+        id.setShard(shard);
+        this.quantity = quantity;
+    }
+
+    public Long getProductId() {
+        return id.getProductId();
+    }
+
+    public Integer getShard() {
+        return id.getShard();
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        ProductStock that = (ProductStock) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+}
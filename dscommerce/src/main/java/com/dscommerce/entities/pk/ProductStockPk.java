@@ -0,0 +1,50 @@
+package com.dscommerce.entities.pk;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.util.Objects;
+
+@Embeddable
+public class ProductStockPk {
+
+    @Column(name = "product_id")
+    private Long productId;
+
+    private Integer shard;
+
+    public ProductStockPk() {}
+
+    public ProductStockPk(Long productId, Integer shard) {
+        this.productId = productId;
+        this.shard = shard;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getShard() {
+        return shard;
+    }
+
+    public void setShard(Integer shard) {
+        this.shard = shard;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        ProductStockPk that = (ProductStockPk) o;
+        return Objects.equals(productId, that.productId) && Objects.equals(shard, that.shard);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(productId, shard);
+    }
+}
@@ -0,0 +1,28 @@
+package com.dscommerce.events;
+
+public class CategoryChangedEvent {
+
+    private final Long categoryId;
+    private final boolean deleted;
+
+    private CategoryChangedEvent(Long categoryId, boolean deleted) {
+        this.categoryId = categoryId;
+        this.deleted = deleted;
+    }
+
+    public static CategoryChangedEvent saved(Long categoryId) {
+        return new CategoryChangedEvent(categoryId, false);
+    }
+
+    public static CategoryChangedEvent deleted(Long categoryId) {
+        return new CategoryChangedEvent(categoryId, true);
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+}
@@ -0,0 +1,43 @@
+package com.dscommerce.events;
+
+import com.dscommerce.entities.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends every delivered event to a file, one line per event:
+ * id, order id, type and the JSON payload separated by tabs.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink {
+
+    @Value("${outbox.file:outbox-events.log}")
+    private Path file;
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) {
+        StringBuilder sb = new StringBuilder();
+        for (OutboxEvent event : events) {
+            sb.append(event.getId()).append('\t')
+                    .append(event.getAggregateId()).append('\t')
+                    .append(event.getEventType()).append('\t')
+                    .append(event.getPayload()).append('\n');
+        }
+        try {
+            Files.writeString(file, sb, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.dscommerce.events;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands committed order status changes to the {@link OrderEventHandler}s on a
+ * few worker threads, so the request that changed the order doesn't wait for
+ * them. The queue is bounded: when it is full new events are dropped, counted
+ * and reported to the handlers instead of slowing down checkout.
+ */
+@Component
+public class OrderEventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderEventBus.class);
+
+    private static final long POLL_MILLIS = 200;
+
+    @Autowired
+    private List<OrderEventHandler> handlers;
+
+    @Value("${order-events.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${order-events.workers:2}")
+    private int workerCount;
+
+    @Value("${order-events.batch-size:100}")
+    private int batchSize;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final List<Thread> workers = new ArrayList<>();
+
+    private BlockingQueue<OrderStatusChangedEvent> queue;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::drain, "order-events-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (!queue.offer(event)) {
+            long total = dropped.incrementAndGet();
+            logger.warn("Order event queue is full, dropped event of order {} ({} dropped so far)",
+                    event.getOrderId(), total);
+            for (OrderEventHandler handler : handlers) {
+                handler.dropped(event);
+            }
+        }
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private void drain() {
+        List<OrderStatusChangedEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                OrderStatusChangedEvent first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                dispatch(List.copyOf(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // one failing handler must not keep the others from seeing the batch
+    private void dispatch(List<OrderStatusChangedEvent> batch) {
+        for (OrderEventHandler handler : handlers) {
+            try {
+                handler.handle(batch);
+            } catch (RuntimeException e) {
+                logger.error("Order event handler {} failed on a batch of {} events",
+                        handler.getClass().getSimpleName(), batch.size(), e);
+            }
+        }
+    }
+
+    // let the workers finish what is already queued
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.dscommerce.events;
+
+import java.util.List;
+
+/**
+ * Side effect of order status changes, run by the {@link OrderEventBus} workers
+ * after the transaction that changed the orders has committed.
+ */
+public interface OrderEventHandler {
+
+    void handle(List<OrderStatusChangedEvent> events);
+
+    // the queue was full, this change will never reach handle()
+    default void dropped(OrderStatusChangedEvent event) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.dscommerce.events;
+
+import com.dscommerce.entities.enums.OrderStatus;
+
+import java.time.Instant;
+
+public class OrderStatusChangedEvent {
+
+    private final Long orderId;
+    private final Long clientId;
+    private final OrderStatus previousStatus;
+    private final OrderStatus status;
+    private final Instant moment;
+
+    public OrderStatusChangedEvent(Long orderId, Long clientId, OrderStatus previousStatus, OrderStatus status,
+                                   Instant moment) {
+        this.orderId = orderId;
+        this.clientId = clientId;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.moment = moment;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Long getClientId() {
+        return clientId;
+    }
+
+    // null for a new order
+    public OrderStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public Instant getMoment() {
+        return moment;
+    }
+}
@@ -0,0 +1,15 @@
+package com.dscommerce.events;
+
+import com.dscommerce.entities.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination of the outbox relay. Events arrive in id order, so the events of
+ * one order are always delivered in the order they were written. Throwing makes
+ * the relay keep the batch and retry it on the next poll.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxEvent> events);
+}
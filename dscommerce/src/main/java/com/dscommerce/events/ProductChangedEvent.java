@@ -0,0 +1,56 @@
+package com.dscommerce.events;
+
+import com.dscommerce.entities.Category;
+import com.dscommerce.entities.Product;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class ProductChangedEvent {
+
+    private final Long productId;
+    private final String name;
+    private final BigDecimal price;
+    private final Set<Long> categoryIds;
+    private final boolean deleted;
+
+    private ProductChangedEvent(Long productId, String name, BigDecimal price, Set<Long> categoryIds, boolean deleted) {
+        this.productId = productId;
+        this.name = name;
+        this.price = price;
+        this.categoryIds = categoryIds;
+        this.deleted = deleted;
+    }
+
+    public static ProductChangedEvent saved(Product entity) {
+        Set<Long> categoryIds = entity.getCategories().stream()
+                .map(Category::getId)
+                .collect(Collectors.toUnmodifiableSet());
+        return new ProductChangedEvent(entity.getId(), entity.getName(), entity.getPrice(), categoryIds, false);
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(productId, null, null, Set.of(), true);
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public Set<Long> getCategoryIds() {
+        return categoryIds;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+}
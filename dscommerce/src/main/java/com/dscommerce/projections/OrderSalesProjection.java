@@ -0,0 +1,16 @@
+package com.dscommerce.projections;
+
+import com.dscommerce.entities.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public interface OrderSalesProjection {
+    Long getOrderId();
+    Instant getMoment();
+    OrderStatus getStatus();
+    Long getProductId();
+    Long getCategoryId();
+    Integer getQuantity();
+    BigDecimal getPrice();
+}
@@ -0,0 +1,16 @@
+package com.dscommerce.projections;
+
+import com.dscommerce.entities.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public interface OrderSummaryProjection {
+    Long getId();
+    Instant getMoment();
+    OrderStatus getStatus();
+    Long getClientId();
+    String getClientName();
+    BigDecimal getTotal();
+    Integer getItemCount();
+}
@@ -0,0 +1,6 @@
+package com.dscommerce.projections;
+
+public interface ProductCategoryProjection {
+    Long getProductId();
+    Long getCategoryId();
+}
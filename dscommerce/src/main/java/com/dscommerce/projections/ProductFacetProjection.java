@@ -0,0 +1,9 @@
+package com.dscommerce.projections;
+
+import java.math.BigDecimal;
+
+public interface ProductFacetProjection {
+    Long getProductId();
+    BigDecimal getPrice();
+    Long getCategoryId();
+}
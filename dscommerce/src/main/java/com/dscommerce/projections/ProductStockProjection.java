@@ -0,0 +1,7 @@
+package com.dscommerce.projections;
+
+public interface ProductStockProjection {
+    Long getProductId();
+    Integer getShard();
+    Long getQuantity();
+}
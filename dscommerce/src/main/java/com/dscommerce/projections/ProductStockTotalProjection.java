@@ -0,0 +1,6 @@
+package com.dscommerce.projections;
+
+public interface ProductStockTotalProjection {
+    Long getProductId();
+    Long getQuantity();
+}
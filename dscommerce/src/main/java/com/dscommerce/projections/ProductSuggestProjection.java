@@ -0,0 +1,7 @@
+package com.dscommerce.projections;
+
+public interface ProductSuggestProjection {
+    Long getProductId();
+    String getName();
+    Long getWeight();
+}
@@ -1,9 +1,25 @@
 package com.dscommerce.repositories;
 
 import com.dscommerce.entities.Category;
+import com.dscommerce.projections.ProductCategoryProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    @Query("SELECT cat FROM Product obj JOIN obj.categories cat WHERE obj.id = :productId")
+    List<Category> searchByProductId(Long productId);
+
+    @Query("SELECT obj.id AS productId, cat.id AS categoryId FROM Product obj JOIN obj.categories cat WHERE obj.id IN :productIds")
+    List<ProductCategoryProjection> searchByProductIds(Collection<Long> productIds);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM tb_category WHERE id = :id")
+    int deleteOneById(Long id);
 }
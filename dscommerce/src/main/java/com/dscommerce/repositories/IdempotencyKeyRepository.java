@@ -0,0 +1,19 @@
+package com.dscommerce.repositories;
+
+import com.dscommerce.entities.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey obj WHERE obj.createdAt < :limit")
+    int deleteExpired(Instant limit);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey obj WHERE obj.id = :id AND obj.createdAt < :limit")
+    int deleteExpiredById(String id, Instant limit);
+}
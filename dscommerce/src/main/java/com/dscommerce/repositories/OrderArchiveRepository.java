@@ -0,0 +1,36 @@
+package com.dscommerce.repositories;
+
+import com.dscommerce.entities.OrderArchive;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface OrderArchiveRepository extends JpaRepository<OrderArchive, Long> {
+
+    // same order and cursor as the history queries of OrderRepository
+    @Query("""
+    SELECT obj FROM OrderArchive obj
+    WHERE obj.clientId = :clientId
+    ORDER BY obj.moment DESC, obj.id DESC
+""")
+    List<OrderArchive> searchHistory(Long clientId, Limit limit);
+
+    @Query("""
+    SELECT obj FROM OrderArchive obj
+    WHERE obj.clientId = :clientId AND (obj.moment, obj.id) < (:moment, :id)
+    ORDER BY obj.moment DESC, obj.id DESC
+""")
+    List<OrderArchive> searchHistoryAfter(Long clientId, Instant moment, Long id, Limit limit);
+
+    @Query("SELECT obj FROM OrderArchive obj WHERE obj.id >= :fromId AND obj.id < :toId")
+    List<OrderArchive> searchInRange(Long fromId, Long toId);
+
+    @Query("SELECT MIN(obj.id) FROM OrderArchive obj")
+    Long findMinId();
+
+    @Query("SELECT MAX(obj.id) FROM OrderArchive obj")
+    Long findMaxId();
+}
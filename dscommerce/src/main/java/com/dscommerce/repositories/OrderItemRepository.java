@@ -1,8 +1,45 @@
 package com.dscommerce.repositories;
 
 import com.dscommerce.entities.OrderItem;
+import com.dscommerce.entities.enums.OrderStatus;
 import com.dscommerce.entities.pk.OrderItemPk;
+import com.dscommerce.projections.OrderSalesProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, OrderItemPk> {
-}
\ No newline at end of file
+
+    // one row per item and category of its product (categoryId null when the product has none)
+    @Query("""
+    SELECT o.id AS orderId, o.moment AS moment, o.status AS status, p.id AS productId, c.id AS categoryId,
+        i.quantity AS quantity, i.price AS price
+    FROM OrderItem i
+    JOIN i.id.order o
+    JOIN i.id.product p
+    LEFT JOIN p.categories c
+    WHERE o.id IN :orderIds
+""")
+    List<OrderSalesProjection> searchSalesRows(Collection<Long> orderIds);
+
+    @Query("""
+    SELECT o.id AS orderId, o.moment AS moment, o.status AS status, p.id AS productId, c.id AS categoryId,
+        i.quantity AS quantity, i.price AS price
+    FROM OrderItem i
+    JOIN i.id.order o
+    JOIN i.id.product p
+    LEFT JOIN p.categories c
+    WHERE o.id >= :fromId AND o.id < :toId AND o.status IN :statuses
+""")
+    List<OrderSalesProjection> searchSalesRowsInRange(Long fromId, Long toId, Collection<OrderStatus> statuses);
+
+    @Query("SELECT obj FROM OrderItem obj JOIN FETCH obj.id.product WHERE obj.id.order.id = :orderId")
+    List<OrderItem> searchWithProductByOrderId(Long orderId);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM tb_order_item WHERE order_id IN :orderIds")
+    int deleteByOrderIds(Collection<Long> orderIds);
+}
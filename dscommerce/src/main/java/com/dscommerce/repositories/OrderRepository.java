@@ -1,9 +1,117 @@
 package com.dscommerce.repositories;
 
 import com.dscommerce.entities.Order;
+import com.dscommerce.projections.OrderSummaryProjection;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    @Query(value = """
+    SELECT obj.id AS id, obj.moment AS moment, obj.status AS status, client.id AS clientId,
+        client.name AS clientName, obj.total AS total, obj.itemCount AS itemCount
+    FROM Order obj
+    JOIN obj.client client
+""", countQuery = "SELECT COUNT(obj) FROM Order obj")
+    Page<OrderSummaryProjection> searchSummaries(Pageable pageable);
+
+    // newest first, strictly after the (moment, id) of the previous page; no client name, no join
+    @Query("""
+    SELECT obj.id AS id, obj.moment AS moment, obj.status AS status, obj.client.id AS clientId,
+        obj.total AS total, obj.itemCount AS itemCount
+    FROM Order obj
+    WHERE obj.client.id = :clientId
+    ORDER BY obj.moment DESC, obj.id DESC
+""")
+    List<OrderSummaryProjection> searchHistory(Long clientId, Limit limit);
+
+    @Query("""
+    SELECT obj.id AS id, obj.moment AS moment, obj.status AS status, obj.client.id AS clientId,
+        obj.total AS total, obj.itemCount AS itemCount
+    FROM Order obj
+    WHERE obj.client.id = :clientId AND (obj.moment, obj.id) < (:moment, :id)
+    ORDER BY obj.moment DESC, obj.id DESC
+""")
+    List<OrderSummaryProjection> searchHistoryAfter(Long clientId, Instant moment, Long id, Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = """
+    UPDATE tb_order SET
+        total = (SELECT COALESCE(SUM(i.price * i.quantity), 0) FROM tb_order_item i WHERE i.order_id = tb_order.id),
+        item_count = (SELECT COALESCE(SUM(i.quantity), 0) FROM tb_order_item i WHERE i.order_id = tb_order.id)
+    WHERE id IN (SELECT id FROM tb_order WHERE total IS NULL ORDER BY id LIMIT :limit)
+""")
+    int backfillTotals(int limit);
+
+    @Query("SELECT MIN(obj.id) FROM Order obj")
+    Long findMinId();
+
+    @Query("SELECT MAX(obj.id) FROM Order obj")
+    Long findMaxId();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT obj FROM Order obj WHERE obj.id = :id")
+    Optional<Order> findByIdForUpdate(Long id);
+
+    // oldest first; orders another archiver holds are skipped, not waited for
+    @Query(nativeQuery = true, value = """
+    SELECT id FROM tb_order
+    WHERE status IN :statuses AND moment < :cutoff
+    ORDER BY moment
+    LIMIT :limit
+    FOR UPDATE SKIP LOCKED
+""")
+    List<Long> lockArchivable(Collection<Integer> statuses, Instant cutoff, int limit);
+
+    // everything OrderDTO reads, in one query
+    @Query("""
+    SELECT obj FROM Order obj
+    JOIN FETCH obj.client
+    LEFT JOIN FETCH obj.payment
+    LEFT JOIN FETCH obj.items item
+    LEFT JOIN FETCH item.id.product
+    WHERE obj.id = :id
+""")
+    Optional<Order> searchWithItemsById(Long id);
+
+    @Query("""
+    SELECT DISTINCT obj FROM Order obj
+    JOIN FETCH obj.client
+    LEFT JOIN FETCH obj.payment
+    LEFT JOIN FETCH obj.items item
+    LEFT JOIN FETCH item.id.product
+    WHERE obj.id IN :ids
+""")
+    List<Order> findAllWithItems(Collection<Long> ids);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM tb_payment WHERE order_id IN :ids")
+    int deletePayments(Collection<Long> ids);
+
+    // orders of the list without items
+    @Query(nativeQuery = true, value = """
+    SELECT id FROM tb_order
+    WHERE id IN :ids
+    AND NOT EXISTS (SELECT 1 FROM tb_order_item WHERE tb_order_item.order_id = tb_order.id)
+""")
+    List<Long> searchDeletableIds(Collection<Long> ids);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM tb_order WHERE id IN :ids")
+    int deleteAllByIds(Collection<Long> ids);
 }
@@ -0,0 +1,27 @@
+package com.dscommerce.repositories;
+
+import com.dscommerce.entities.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // rows another relay is already delivering are skipped, not waited for
+    @Query(nativeQuery = true, value = """
+    SELECT * FROM tb_outbox_event
+    ORDER BY id
+    LIMIT :limit
+    FOR UPDATE SKIP LOCKED
+""")
+    List<OutboxEvent> lockNextBatch(int limit);
+
+    // orders that still have an older event held by another relay
+    @Query(nativeQuery = true, value = """
+    SELECT DISTINCT aggregate_id FROM tb_outbox_event
+    WHERE aggregate_id IN :aggregateIds AND id < :maxId AND id NOT IN :ids
+""")
+    List<Long> findAggregatesWithOlderEvents(Collection<Long> aggregateIds, Long maxId, Collection<Long> ids);
+}
@@ -1,18 +1,69 @@
 package com.dscommerce.repositories;
 
 import com.dscommerce.entities.Product;
+import com.dscommerce.projections.ProductFacetProjection;
+import com.dscommerce.projections.ProductSuggestProjection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
     @Query("SELECT obj " +
             "FROM Product obj " +
-            "WHERE UPPER(name) " +
-            "LIKE UPPER(CONCAT('%', :name, '%'))")
-    Page<Product> searchByName(String name, Pageable pageable);
+            "WHERE (:name = '' OR obj.nameNormalized LIKE CONCAT('%', :name, '%')) " +
+            "AND (:minPrice IS NULL OR obj.price >= :minPrice) " +
+            "AND (:maxPrice IS NULL OR obj.price <= :maxPrice) " +
+            "AND (:anyCategory = TRUE OR EXISTS (" +
+            "SELECT 1 FROM Product p JOIN p.categories cat WHERE p = obj AND cat.id IN :categoryIds))")
+    Page<Product> searchProducts(String name, List<Long> categoryIds, boolean anyCategory,
+                                 BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
+
+    List<Product> findByNameNormalizedIsNull(Pageable pageable);
+
+    @Query("SELECT DISTINCT obj " +
+            "FROM Product obj " +
+            "LEFT JOIN FETCH obj.categories " +
+            "WHERE obj IN :products")
+    List<Product> searchProductsWithCategories(List<Product> products);
+
+    @Query("SELECT obj FROM Product obj LEFT JOIN FETCH obj.categories WHERE obj.id = :id")
+    Optional<Product> searchWithCategoriesById(Long id);
+
+    @Query(nativeQuery = true, value = """
+    SELECT tb_product.id AS productId, tb_product.price, tb_product_category.category_id AS categoryId
+    FROM tb_product
+    LEFT JOIN tb_product_category ON tb_product.id = tb_product_category.product_id
+""")
+    List<ProductFacetProjection> searchFacetRows();
+
+    @Query(nativeQuery = true, value = """
+    SELECT tb_product.id AS productId, tb_product.name, COALESCE(SUM(tb_order_item.quantity), 0) AS weight
+    FROM tb_product
+    LEFT JOIN tb_order_item ON tb_product.id = tb_order_item.product_id
+    GROUP BY tb_product.id, tb_product.name
+""")
+    List<ProductSuggestProjection> searchSuggestRows();
+
+    // products of the list that no order item refers to
+    @Query(nativeQuery = true, value = """
+    SELECT id FROM tb_product
+    WHERE id IN :ids
+    AND NOT EXISTS (SELECT 1 FROM tb_order_item WHERE tb_order_item.product_id = tb_product.id)
+""")
+    List<Long> searchDeletableIds(Collection<Long> ids);
+
+    // category links and stock rows are deleted by the database (ON DELETE CASCADE)
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM tb_product WHERE id IN :ids")
+    int deleteAllByIds(Collection<Long> ids);
 }
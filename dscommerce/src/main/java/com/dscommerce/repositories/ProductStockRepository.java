@@ -0,0 +1,59 @@
+package com.dscommerce.repositories;
+
+import com.dscommerce.entities.ProductStock;
+import com.dscommerce.entities.pk.ProductStockPk;
+import com.dscommerce.projections.ProductStockProjection;
+import com.dscommerce.projections.ProductStockTotalProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface ProductStockRepository extends JpaRepository<ProductStock, ProductStockPk> {
+
+    // a shard nobody else is holding that can cover the quantity, starting the scan at a random shard
+    @Query(nativeQuery = true, value = """
+    SELECT shard FROM tb_product_stock
+    WHERE product_id = :productId AND quantity >= :quantity
+    ORDER BY MOD(shard + :rotation, :shardCount)
+    LIMIT 1
+    FOR UPDATE SKIP LOCKED
+""")
+    List<Integer> lockFreeShard(Long productId, int quantity, int rotation, int shardCount);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+    UPDATE tb_product_stock SET quantity = quantity - :quantity
+    WHERE product_id = :productId AND shard = :shard AND quantity >= :quantity
+""")
+    int reserve(Long productId, int shard, int quantity);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+    UPDATE tb_product_stock SET quantity = quantity + :quantity
+    WHERE product_id = :productId AND shard = :shard
+""")
+    int release(Long productId, int shard, int quantity);
+
+    @Query(nativeQuery = true, value = """
+    SELECT product_id AS productId, shard, quantity
+    FROM tb_product_stock
+    WHERE product_id = :productId
+    ORDER BY shard
+    FOR UPDATE
+""")
+    List<ProductStockProjection> lockShards(Long productId);
+
+    @Query(nativeQuery = true, value = """
+    SELECT product_id AS productId, SUM(quantity) AS quantity
+    FROM tb_product_stock
+    WHERE product_id IN :productIds
+    GROUP BY product_id
+""")
+    List<ProductStockTotalProjection> sumByProductIds(List<Long> productIds);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM tb_product_stock WHERE product_id = :productId")
+    void deleteByProductId(Long productId);
+}
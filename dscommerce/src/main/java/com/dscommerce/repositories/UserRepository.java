@@ -19,5 +19,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
 """)
     List<UserDetailsProjection> searchUserAndRolesByEmail(String email);
 
+    // roles fetched too, the authenticated user is used after its transaction ends
+    @Query("SELECT obj FROM User obj LEFT JOIN FETCH obj.roles WHERE obj.email = :email")
     Optional<User> findByEmail(String email);
 }
\ No newline at end of file
@@ -15,7 +15,7 @@ public class AuthService {
         User me = userService.authenticated();
         if (!me.hasRole("ROLE_ADMIN") &&
             !me.getId().equals(userId)) {
-            throw new ForbiddenException("Access denied");
+            throw ForbiddenException.ACCESS_DENIED;
         }
     }
 }
@@ -0,0 +1,61 @@
+package com.dscommerce.services;
+
+import com.dscommerce.dto.BulkDeleteDTO;
+import com.dscommerce.services.exceptions.BadRequestException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Deletes large sets of products or orders for admins cleaning up data. The
+ * ids are deleted batch-size at a time, a transaction and a couple of set-based
+ * statements per batch. Ids that do not exist or are still referenced (a
+ * product in an order, an order with items) are skipped and counted.
+ */
+@Service
+public class BulkDeleteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkDeleteService.class);
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Value("${bulk-delete.batch-size:500}")
+    private int batchSize;
+
+    @Value("${bulk-delete.max-ids:10000}")
+    private int maxIds;
+
+    public BulkDeleteDTO deleteProducts(List<Long> ids) {
+        return delete("products", ids, productService::deleteAll);
+    }
+
+    public BulkDeleteDTO deleteOrders(List<Long> ids) {
+        return delete("orders", ids, orderService::deleteAll);
+    }
+
+    // batches already deleted stay deleted when a later one fails
+    private BulkDeleteDTO delete(String what, List<Long> ids, ToIntFunction<List<Long>> deleteBatch) {
+        if (ids.size() > maxIds) {
+            throw new BadRequestException("A maximum of " + maxIds + " ids is allowed per request");
+        }
+        LinkedHashSet<Long> unique = new LinkedHashSet<>(ids);
+        unique.remove(null);
+        List<Long> distinct = List.copyOf(unique);
+        int deleted = 0;
+        for (int from = 0; from < distinct.size(); from += batchSize) {
+            deleted += deleteBatch.applyAsInt(distinct.subList(from, Math.min(from + batchSize, distinct.size())));
+        }
+        logger.info("Bulk delete of {} {}: {} deleted", distinct.size(), what, deleted);
+        return new BulkDeleteDTO(distinct.size(), deleted);
+    }
+}
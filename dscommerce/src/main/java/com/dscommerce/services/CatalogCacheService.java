@@ -0,0 +1,135 @@
+package com.dscommerce.services;
+
+import com.dscommerce.dto.CatalogCacheStatsDTO;
+import com.dscommerce.events.CategoryChangedEvent;
+import com.dscommerce.events.ProductChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Rendered JSON of the hot catalog responses, plain and gzipped, by canonical
+ * request key. Entries are dropped when a product or category write commits.
+ * A response rendered before such a write is not stored, so the cache never
+ * serves what the write replaced. Writes committed by another instance are not
+ * seen here, so every entry also expires after a fixed time.
+ */
+@Service
+public class CatalogCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogCacheService.class);
+
+    public static final String PRODUCTS = "/products";
+    public static final String CATEGORIES = "/categories";
+
+    @Value("${catalog-cache.max-entries:200}")
+    private int maxEntries;
+
+    @Value("${catalog-cache.ttl-ms:30000}")
+    private long ttlMs;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    // bumped by every invalidation; guarded by this for writers
+    private volatile long generation;
+
+    public Entry find(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.isExpired(System.nanoTime())) {
+            entries.remove(key, entry);
+            entry = null;
+        }
+        (entry != null ? hits : misses).incrementAndGet();
+        return entry;
+    }
+
+    // read before rendering a miss, handed back to store()
+    public long generation() {
+        return generation;
+    }
+
+    public void store(String key, long renderedAt, byte[] json) {
+        long now = System.nanoTime();
+        Entry entry = new Entry(json, gzip(json), now + TimeUnit.MILLISECONDS.toNanos(ttlMs));
+        synchronized (this) {
+            if (entries.size() >= maxEntries) {
+                entries.values().removeIf(cached -> cached.isExpired(now));
+            }
+            if (renderedAt == generation && (entries.size() < maxEntries || entries.containsKey(key))) {
+                entries.put(key, entry);
+            }
+        }
+    }
+
+    // after the facet counts are updated, so a page rendered next has the new ones
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate(PRODUCTS);
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        invalidate(PRODUCTS);
+        invalidate(CATEGORIES);
+    }
+
+    public synchronized void invalidate(String path) {
+        generation++;
+        invalidations.incrementAndGet();
+        entries.keySet().removeIf(key -> key.equals(path) || key.startsWith(path + "?"));
+        logger.debug("Catalog cache entries of {} dropped", path);
+    }
+
+    public synchronized void clear() {
+        generation++;
+        invalidations.incrementAndGet();
+        entries.clear();
+    }
+
+    public CatalogCacheStatsDTO getStats() {
+        long bytes = 0;
+        long gzipBytes = 0;
+        for (Entry entry : entries.values()) {
+            bytes += entry.json().length;
+            gzipBytes += entry.gzip().length;
+        }
+        return new CatalogCacheStatsDTO(hits.get(), misses.get(), invalidations.get(), entries.size(), bytes, gzipBytes);
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // expiresAt is on the System.nanoTime() clock
+    public record Entry(byte[] json, byte[] gzip, long expiresAt) {
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
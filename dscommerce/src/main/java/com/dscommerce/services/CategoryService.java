@@ -2,6 +2,7 @@ package com.dscommerce.services;
 
 import com.dscommerce.dto.CategoryDTO;
 import com.dscommerce.entities.Category;
+import com.dscommerce.events.CategoryChangedEvent;
 import com.dscommerce.repositories.CategoryRepository;
 import com.dscommerce.services.exceptions.DatabaseException;
 import com.dscommerce.services.exceptions.ResourceNotFoundException;
@@ -9,9 +10,9 @@ import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -26,6 +27,9 @@ public class CategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Transactional(readOnly = true)
     public List<CategoryDTO> findAll() {
         logger.info("Finding all category");
@@ -37,7 +41,7 @@ public class CategoryService {
     public CategoryDTO findById(Long id) {
         logger.info("Finding one category by id: {}", id);
         Category Category = categoryRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Resource not found for id: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException(id));
         return new CategoryDTO(Category);
     }
 
@@ -48,6 +52,7 @@ public class CategoryService {
 
         dtoToEntity(dto, entity);
         entity = categoryRepository.save(entity);
+        eventPublisher.publishEvent(CategoryChangedEvent.saved(entity.getId()));
         return new CategoryDTO(entity);
     }
 
@@ -62,22 +67,23 @@ public class CategoryService {
             Category entity = categoryRepository.getReferenceById(id);
             dtoToEntity(dto, entity);
             entity = categoryRepository.save(entity);
+            eventPublisher.publishEvent(CategoryChangedEvent.saved(entity.getId()));
             return new CategoryDTO(entity);
         } catch (EntityNotFoundException e) {
-            throw new ResourceNotFoundException("Resource not found for id: " + id);
+            throw new ResourceNotFoundException(id);
         }
     }
 
-    @Transactional(propagation = Propagation.SUPPORTS)
+    @Transactional
     public void delete(Long id) {
         logger.info("Deleting a Category by id: {}", id);
-        if (!categoryRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Resource not found for id: " + id);
-        }
         try {
-            categoryRepository.deleteById(id);
+            if (categoryRepository.deleteOneById(id) == 0) {
+                throw new ResourceNotFoundException(id);
+            }
         } catch (DataIntegrityViolationException e) {
-            throw new DatabaseException("Referential integrity failure");
+            throw DatabaseException.REFERENTIAL_INTEGRITY;
         }
+        eventPublisher.publishEvent(CategoryChangedEvent.deleted(id));
     }
 }
@@ -0,0 +1,216 @@
+package com.dscommerce.services;
+
+import com.dscommerce.dto.OrderDTO;
+import com.dscommerce.dto.OrderItemDTO;
+import com.dscommerce.entities.IdempotencyKey;
+import com.dscommerce.entities.User;
+import com.dscommerce.repositories.IdempotencyKeyRepository;
+import com.dscommerce.services.exceptions.BadRequestException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Makes POST /orders safe to retry. The first request with a given key runs the
+ * insert, concurrent duplicates wait for it and every later retry gets the same
+ * order back. The most recent keys live in memory for the fast path, at most
+ * idempotency.max-entries of them, and all of them in tb_idempotency_key
+ * (written with the order) for older keys, restarts and other instances. Keys
+ * and replayed orders are always read from the primary, a replica may not have
+ * them yet.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final Duration TTL = Duration.ofHours(24);
+    private static final long WAIT_SECONDS = 30;
+    private static final int MAX_KEY_LENGTH = 100;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private OrderCheckoutService orderCheckoutService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public OrderDTO insertOrder(OrderDTO dto, String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must have between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        User user = userService.authenticated();
+        String id = user.getId() + ":" + key;
+        String fingerprint = fingerprint(dto);
+
+        while (true) {
+            Entry mine = new Entry(fingerprint, Instant.now().plus(TTL), new CompletableFuture<>());
+            Entry existing = entries.putIfAbsent(id, mine);
+            if (existing == null) {
+                trim();
+                return runFirst(id, mine, dto, key);
+            }
+            if (existing.isExpired()) {
+                entries.remove(id, existing);
+                continue;
+            }
+            checkFingerprint(existing.fingerprint(), fingerprint);
+            logger.info("Replaying order for Idempotency-Key {}", key);
+            Long orderId = await(existing.orderId());
+            return onPrimary(() -> orderService.findById(orderId));
+        }
+    }
+
+    private OrderDTO runFirst(String id, Entry mine, OrderDTO dto, String key) {
+        try {
+            Optional<IdempotencyKey> stored = findActive(id);
+            if (stored.isPresent()) {
+                checkFingerprint(stored.get().getFingerprint(), mine.fingerprint());
+                mine.orderId().complete(stored.get().getOrderId());
+                return onPrimary(() -> orderService.findById(stored.get().getOrderId()));
+            }
+            // past its TTL but not evicted yet, the insert of the key would fail on it
+            Instant limit = Instant.now().minus(TTL);
+            onPrimary(() -> idempotencyKeyRepository.deleteExpiredById(id, limit));
+            OrderDTO result = orderCheckoutService.insert(dto, id, mine.fingerprint());
+            mine.orderId().complete(result.getId());
+            return result;
+        } catch (DataIntegrityViolationException e) {
+            // another instance committed the same key first
+            Optional<IdempotencyKey> winner = findActive(id);
+            if (winner.isEmpty()) {
+                fail(id, mine, e);
+                throw e;
+            }
+            mine.orderId().complete(winner.get().getOrderId());
+            return onPrimary(() -> orderService.findById(winner.get().getOrderId()));
+        } catch (RuntimeException e) {
+            fail(id, mine, e);
+            throw e;
+        }
+    }
+
+    // a failed attempt is not remembered, waiters see the same error and the client may retry
+    private void fail(String id, Entry entry, RuntimeException e) {
+        entries.remove(id, entry);
+        entry.orderId().completeExceptionally(e);
+    }
+
+    /**
+     * Once over max-entries, forgets expired keys and then the completed keys
+     * closest to expiring, down to 90% of the cap. Keys still being inserted
+     * are kept, their duplicates wait on them. A forgotten key is found in
+     * the table on its next retry.
+     */
+    private synchronized void trim() {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        entries.values().removeIf(entry -> entry.isExpired() && entry.orderId().isDone());
+        int excess = entries.size() - (maxEntries - Math.max(1, maxEntries / 10));
+        if (excess > 0) {
+            entries.entrySet().stream()
+                    .filter(e -> e.getValue().orderId().isDone())
+                    .sorted(Comparator.comparing(e -> e.getValue().expiresAt()))
+                    .limit(excess)
+                    .toList()
+                    .forEach(e -> entries.remove(e.getKey(), e.getValue()));
+        }
+    }
+
+    private Optional<IdempotencyKey> findActive(String id) {
+        Instant limit = Instant.now().minus(TTL);
+        return onPrimary(() -> idempotencyKeyRepository.findById(id).filter(k -> k.getCreatedAt().isAfter(limit)));
+    }
+
+    // a read-write transaction goes to the primary, the read-only ones joining it stay there
+    private <T> T onPrimary(Supplier<T> lookup) {
+        return transactionTemplate.execute(status -> lookup.get());
+    }
+
+    private static Long await(CompletableFuture<Long> future) {
+        try {
+            return future.get(WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out waiting for the original request", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void checkFingerprint(String expected, String actual) {
+        if (!expected.equals(actual)) {
+            throw new BadRequestException("Idempotency-Key was already used with a different request");
+        }
+    }
+
+    private static String fingerprint(OrderDTO dto) {
+        StringBuilder sb = new StringBuilder();
+        dto.getItems().stream()
+                .sorted(Comparator.comparing(OrderItemDTO::getProductId, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .forEach(item -> sb.append(item.getProductId()).append('x').append(item.getQuantity()).append(';'));
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Scheduled(fixedDelay = 10, timeUnit = TimeUnit.MINUTES)
+    @Transactional
+    public void evictExpired() {
+        entries.values().removeIf(entry -> entry.isExpired() && entry.orderId().isDone());
+        int deleted = idempotencyKeyRepository.deleteExpired(Instant.now().minus(TTL));
+        if (deleted > 0) {
+            logger.info("Evicted {} expired idempotency keys", deleted);
+        }
+    }
+
+    private record Entry(String fingerprint, Instant expiresAt, CompletableFuture<Long> orderId) {
+
+        boolean isExpired() {
+            return Instant.now().isAfter(expiresAt);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.dscommerce.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Archives finished orders older than the retention window, one short
+ * transaction per batch, then drops the partitions that were emptied.
+ */
+@Service
+@ConditionalOnProperty(name = "order-archive.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderArchiveJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiveJobService.class);
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private OrderPartitionService orderPartitionService;
+
+    @Value("${order-archive.retention-days:365}")
+    private int retentionDays;
+
+    @Value("${order-archive.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(cron = "${order-archive.cron:0 30 3 * * *}")
+    public void archive() {
+        Instant cutoff = Instant.now().minus(Duration.ofDays(retentionDays));
+        long total = 0;
+        try {
+            int archived;
+            do {
+                archived = orderArchiveService.archiveBatch(cutoff, batchSize);
+                total += archived;
+            } while (archived == batchSize);
+            orderPartitionService.dropEmptyPartitionsBefore(cutoff);
+        } catch (RuntimeException e) {
+            logger.error("Order archiving failed, it is retried on the next run", e);
+        }
+        if (total > 0) {
+            logger.info("Archived {} orders placed before {}", total, cutoff);
+        }
+    }
+}
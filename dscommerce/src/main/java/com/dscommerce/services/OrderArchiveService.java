@@ -0,0 +1,126 @@
+package com.dscommerce.services;
+
+import com.dscommerce.dto.ClientDTO;
+import com.dscommerce.dto.OrderDTO;
+import com.dscommerce.dto.OrderSummaryDTO;
+import com.dscommerce.entities.Order;
+import com.dscommerce.entities.OrderArchive;
+import com.dscommerce.entities.enums.OrderStatus;
+import com.dscommerce.repositories.OrderArchiveRepository;
+import com.dscommerce.repositories.OrderItemRepository;
+import com.dscommerce.repositories.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cold storage for finished orders past the retention window. Each order is
+ * kept as one gzipped JSON row in tb_order_archive, so tb_order and its
+ * indexes only hold recent orders. Archived orders are read back one at a time,
+ * a page of a client's history at a time, or by id range for the analytics
+ * rebuild. The admin order list (GET /orders) only covers tb_order.
+ */
+@Service
+public class OrderArchiveService {
+
+    // only orders that can no longer change are archived
+    private static final List<Integer> ARCHIVABLE_STATUSES =
+            List.of(OrderStatus.DELIVERED.ordinal(), OrderStatus.CANCELED.ordinal());
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private OrderArchiveRepository orderArchiveRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Moves the next batch of orders placed before the cutoff to the archive.
+     * Returns how many orders were archived.
+     */
+    @Transactional
+    public int archiveBatch(Instant cutoff, int batchSize) {
+        List<Long> ids = orderRepository.lockArchivable(ARCHIVABLE_STATUSES, cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Instant now = Instant.now();
+        for (Order order : orderRepository.findAllWithItems(ids)) {
+            // persist, not save: the id is already set and save would merge with a SELECT per order
+            entityManager.persist(new OrderArchive(order.getId(), order.getClient().getId(), order.getMoment(),
+                    now, compress(new OrderDTO(order))));
+        }
+        entityManager.flush();
+        orderRepository.deletePayments(ids);
+        orderItemRepository.deleteByOrderIds(ids);
+        orderRepository.deleteAllByIdInBatch(ids);
+        entityManager.clear();
+        return ids.size();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<OrderDTO> findById(Long id) {
+        return orderArchiveRepository.findById(id).map(archive -> decompress(archive.getPayload()));
+    }
+
+    // newest first, strictly before (moment, id) unless moment is null, like OrderService.findMyOrders
+    @Transactional(readOnly = true)
+    public List<OrderSummaryDTO> findHistory(Long clientId, Instant moment, Long id, Limit limit, ClientDTO client) {
+        List<OrderArchive> archives = moment == null
+                ? orderArchiveRepository.searchHistory(clientId, limit)
+                : orderArchiveRepository.searchHistoryAfter(clientId, moment, id, limit);
+        return archives.stream()
+                .map(archive -> decompress(archive.getPayload()))
+                .map(dto -> new OrderSummaryDTO(dto.getId(), dto.getMoment(), dto.getOrderStatus(), client,
+                        dto.getTotal(), dto.getItemCount()))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderDTO> findInRange(Long fromId, Long toId) {
+        return orderArchiveRepository.searchInRange(fromId, toId).stream()
+                .map(archive -> decompress(archive.getPayload()))
+                .toList();
+    }
+
+    private byte[] compress(OrderDTO dto) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, dto);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private OrderDTO decompress(byte[] payload) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return objectMapper.readValue(in, OrderDTO.class);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.dscommerce.services;
+
+import com.dscommerce.dto.OrderDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Entry point of POST /orders. With checkout.group-commit.enabled, concurrent
+ * checkouts are queued and a worker creates up to max-batch-size of them, or
+ * whatever arrived within max-wait-ms, in one transaction, so a burst of orders
+ * pays for one commit instead of one each. Every caller still gets its own
+ * order or its own error: when a batch fails, its checkouts are retried in a
+ * transaction each. A caller that gives up waiting withdraws its checkout
+ * unless a worker has already taken it into a batch, then it waits for that.
+ */
+@Service
+public class OrderCheckoutService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderCheckoutService.class);
+
+    private static final long POLL_MILLIS = 200;
+    private static final long WAIT_SECONDS = 30;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserService userService;
+
+    @Value("${checkout.group-commit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${checkout.group-commit.max-batch-size:50}")
+    private int maxBatchSize;
+
+    @Value("${checkout.group-commit.max-wait-ms:5}")
+    private long maxWaitMillis;
+
+    @Value("${checkout.group-commit.workers:2}")
+    private int workerCount;
+
+    @Value("${checkout.group-commit.queue-capacity:1000}")
+    private int queueCapacity;
+
+    private final List<Thread> workers = new ArrayList<>();
+
+    private BlockingQueue<Pending> queue;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        if (!enabled) {
+            return;
+        }
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::drain, "checkout-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    public OrderDTO insert(OrderDTO dto) {
+        return insert(dto, null, null);
+    }
+
+    public OrderDTO insert(OrderDTO dto, String idempotencyId, String fingerprint) {
+        if (!enabled) {
+            return orderService.insert(dto, idempotencyId, fingerprint);
+        }
+        logger.info("Queueing a order {}", dto.getClient());
+        // the worker thread has no security context, the client is resolved here
+        OrderService.Checkout checkout = new OrderService.Checkout(userService.authenticated(), dto, idempotencyId, fingerprint);
+        Pending pending = new Pending(checkout, new CompletableFuture<>(), new AtomicBoolean());
+        if (!queue.offer(pending)) {
+            // the workers are behind, this checkout commits on its own
+            return orderService.insertAll(List.of(checkout)).get(0);
+        }
+        return await(pending);
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long left = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || left <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(left, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<Pending> queued) {
+        // callers that timed out have withdrawn theirs, no order is created for them
+        List<Pending> batch = queued.stream().filter(Pending::claim).toList();
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            List<OrderDTO> orders = orderService.insertAll(batch.stream().map(Pending::checkout).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(orders.get(i));
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).result().completeExceptionally(e);
+                return;
+            }
+            // one bad checkout (out of stock, unknown product) rolled back the whole batch
+            logger.debug("Batch of {} orders failed, retrying them one by one", batch.size(), e);
+            for (Pending pending : batch) {
+                try {
+                    pending.result().complete(orderService.insertAll(List.of(pending.checkout())).get(0));
+                } catch (RuntimeException single) {
+                    pending.result().completeExceptionally(single);
+                }
+            }
+        }
+    }
+
+    private static OrderDTO await(Pending pending) {
+        try {
+            try {
+                return pending.result().get(WAIT_SECONDS, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                if (pending.claim()) {
+                    pending.result().cancel(false);
+                    throw new IllegalStateException("Timed out waiting for the order to be created", e);
+                }
+                // a worker is committing it, the order may exist already
+                return pending.result().get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            pending.claim();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // let the workers commit what is already queued
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    private record Pending(OrderService.Checkout checkout, CompletableFuture<OrderDTO> result, AtomicBoolean claimed) {
+
+        // true for whoever gets it first: a worker committing it or its caller giving up
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.dscommerce.services;
+
+import com.dscommerce.events.OrderEventHandler;
+import com.dscommerce.events.OrderStatusChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class OrderNotificationService implements OrderEventHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderNotificationService.class);
+
+    // no mail provider yet, the notification is only logged
+    @Override
+    public void handle(List<OrderStatusChangedEvent> events) {
+        for (OrderStatusChangedEvent event : events) {
+            logger.info("Notifying client {}: order {} is now {}",
+                    event.getClientId(), event.getOrderId(), event.getStatus());
+        }
+    }
+}
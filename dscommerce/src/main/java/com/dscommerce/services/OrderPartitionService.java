@@ -0,0 +1,98 @@
+package com.dscommerce.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the monthly partitions of tb_order on Postgres: creates the coming
+ * months ahead of time and drops months the archiver has emptied. Does nothing
+ * on databases where tb_order is a plain table.
+ */
+@Service
+public class OrderPartitionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderPartitionService.class);
+
+    private static final int MONTHS_AHEAD = 3;
+    private static final String PREFIX = "tb_order_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean partitioned;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.DAYS, initialDelay = 1)
+    public void createUpcomingPartitions() {
+        if (!isPartitioned()) {
+            return;
+        }
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= MONTHS_AHEAD; i++) {
+            YearMonth month = current.plusMonths(i);
+            try {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + PREFIX + month.format(SUFFIX)
+                        + " PARTITION OF tb_order FOR VALUES FROM ('" + month.atDay(1)
+                        + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+            } catch (DataAccessException e) {
+                // the default partition already has orders of that month
+                logger.warn("Could not create the tb_order partition for {}", month, e);
+            }
+        }
+    }
+
+    /**
+     * Drops the empty partitions of months that ended before the cutoff, which
+     * gives their space back at once instead of leaving it to vacuum.
+     */
+    public void dropEmptyPartitionsBefore(Instant cutoff) {
+        if (!isPartitioned()) {
+            return;
+        }
+        LocalDate cutoffDay = LocalDate.ofInstant(cutoff, ZoneOffset.UTC);
+        List<String> names = jdbcTemplate.queryForList("""
+            SELECT c.relname FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'tb_order'::regclass AND c.relname LIKE 'tb\\_order\\_p%'
+            ORDER BY c.relname
+""", String.class);
+        for (String name : names) {
+            YearMonth month = YearMonth.parse(name.substring(PREFIX.length()), SUFFIX);
+            if (month.plusMonths(1).atDay(1).isAfter(cutoffDay)) {
+                break;
+            }
+            Boolean empty = jdbcTemplate.queryForObject("SELECT NOT EXISTS (SELECT 1 FROM " + name + ")", Boolean.class);
+            if (Boolean.TRUE.equals(empty)) {
+                // the foreign keys from items and payments keep an attached partition from being dropped
+                jdbcTemplate.execute("ALTER TABLE tb_order DETACH PARTITION " + name);
+                jdbcTemplate.execute("DROP TABLE " + name);
+                logger.info("Dropped archived order partition {}", name);
+            }
+        }
+    }
+
+    private boolean isPartitioned() {
+        if (partitioned == null) {
+            partitioned = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    connection.getMetaData().getDatabaseProductName().equalsIgnoreCase("PostgreSQL"));
+        }
+        return partitioned;
+    }
+}
@@ -1,33 +1,72 @@
 package com.dscommerce.services;
 
+import com.dscommerce.dto.ClientDTO;
+import com.dscommerce.dto.FieldSelection;
 import com.dscommerce.dto.OrderDTO;
+import com.dscommerce.dto.OrderHistoryDTO;
 import com.dscommerce.dto.OrderItemDTO;
+import com.dscommerce.dto.OrderStatsDTO;
+import com.dscommerce.dto.OrderSummaryDTO;
+import com.dscommerce.dto.PaymentDTO;
 import com.dscommerce.entities.*;
 import com.dscommerce.entities.enums.OrderStatus;
+import com.dscommerce.events.OrderEventBus;
+import com.dscommerce.events.OrderStatusChangedEvent;
+import com.dscommerce.projections.OrderSummaryProjection;
 import com.dscommerce.repositories.CategoryRepository;
 import com.dscommerce.repositories.OrderItemRepository;
 import com.dscommerce.repositories.OrderRepository;
 import com.dscommerce.repositories.ProductRepository;
+import com.dscommerce.services.exceptions.BadRequestException;
+import com.dscommerce.services.exceptions.ConflictException;
 import com.dscommerce.services.exceptions.DatabaseException;
 import com.dscommerce.services.exceptions.ResourceNotFoundException;
-import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 @Service
 public class OrderService {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
 
+    public static final int MAX_HISTORY_PAGE_SIZE = 100;
+
+    // order columns fields= can leave out, by JSON name
+    private static final Map<String, String> COLUMNS = Map.of(
+            "moment", "obj.moment",
+            "orderStatus", "obj.status",
+            "version", "obj.version",
+            "total", "obj.total",
+            "itemCount", "obj.itemCount");
+
     @Autowired
     private OrderRepository orderRepository;
 
@@ -46,82 +85,395 @@ public class OrderService {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private OrderStatsService orderStatsService;
+
+    @Autowired
+    private OrderEventBus orderEventBus;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // summary columns only, no items are loaded
     @Transactional(readOnly = true)
-    public List<OrderDTO> findAll() {
+    public Page<OrderSummaryDTO> findAll(Pageable pageable) {
         logger.info("Finding all orders");
-        List<Order> orderPage = orderRepository.findAll();
-        return orderPage.stream().map(OrderDTO::new).toList();
+        return orderRepository.searchSummaries(pageable).map(OrderSummaryDTO::new);
+    }
+
+    // keyset paging: the cursor is the (moment, id) of the last order of the previous page.
+    // Archived orders are merged in, old unfinished orders can be older than archived ones
+    @Transactional(readOnly = true)
+    public OrderHistoryDTO findMyOrders(String cursor, int size) {
+        User user = userService.authenticated();
+        logger.info("Finding order history of user {}", user.getId());
+        int pageSize = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+        Limit limit = Limit.of(pageSize + 1);
+        ClientDTO client = new ClientDTO(user);
+        List<OrderSummaryProjection> rows;
+        List<OrderSummaryDTO> archived;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = orderRepository.searchHistory(user.getId(), limit);
+            archived = orderArchiveService.findHistory(user.getId(), null, null, limit, client);
+        } else {
+            OrderCursor after = OrderCursor.decode(cursor);
+            rows = orderRepository.searchHistoryAfter(user.getId(), after.moment(), after.id(), limit);
+            archived = orderArchiveService.findHistory(user.getId(), after.moment(), after.id(), limit, client);
+        }
+
+        // the two reads are not one snapshot, an order archived in between is in both
+        Map<Long, OrderSummaryDTO> byId = new HashMap<>();
+        rows.forEach(row -> byId.put(row.getId(), new OrderSummaryDTO(row, client)));
+        archived.forEach(summary -> byId.put(summary.getId(), summary));
+        List<OrderSummaryDTO> merged = new ArrayList<>(byId.values());
+        merged.sort(Comparator.comparing(OrderSummaryDTO::getMoment).thenComparing(OrderSummaryDTO::getId).reversed());
+        List<OrderSummaryDTO> content = merged.subList(0, Math.min(pageSize, merged.size()));
+        String next = null;
+        if (merged.size() > pageSize) {
+            OrderSummaryDTO last = content.get(content.size() - 1);
+            next = new OrderCursor(last.getMoment(), last.getId()).encode();
+        }
+        return new OrderHistoryDTO(List.copyOf(content), next);
     }
 
     @Transactional(readOnly = true)
     public OrderDTO findById(Long id) {
         logger.info("Finding one order by id: {}", id);
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Resource not found for id: " + id));
-        authService.validateSelfOrAdmin(order.getClient().getId());
-        return new OrderDTO(order);
+        Optional<Order> order = orderRepository.searchWithItemsById(id);
+        if (order.isEmpty()) {
+            // past the retention window: slower, read back from the archive
+            OrderDTO archived = orderArchiveService.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException(id));
+            authService.validateSelfOrAdmin(archived.getClient().getId());
+            return archived;
+        }
+        authService.validateSelfOrAdmin(order.get().getClient().getId());
+        return new OrderDTO(order.get());
+    }
+
+    // only the selected columns are read, client, payment and items only when selected
+    @Transactional(readOnly = true)
+    public OrderDTO findById(Long id, FieldSelection fields) {
+        if (fields.isAll()) {
+            return findById(id);
+        }
+        logger.info("Finding fields {} of one order by id: {}", fields, id);
+        StringBuilder jpql = new StringBuilder("SELECT obj.id AS id, obj.client.id AS clientId");
+        COLUMNS.forEach((field, path) -> {
+            if (fields.includes(field)) {
+                jpql.append(", ").append(path).append(" AS ").append(field);
+            }
+        });
+        if (fields.includes("client")) {
+            jpql.append(", obj.client.name AS clientName");
+        }
+        if (fields.includes("payment")) {
+            jpql.append(", payment.id AS paymentId, payment.moment AS paymentMoment FROM Order obj LEFT JOIN obj.payment payment");
+        } else {
+            jpql.append(" FROM Order obj");
+        }
+        jpql.append(" WHERE obj.id = :id");
+        Optional<Tuple> found = entityManager.createQuery(jpql.toString(), Tuple.class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst();
+        if (found.isEmpty()) {
+            // archived orders are stored whole, the response is still narrowed
+            return findById(id);
+        }
+        Tuple row = found.get();
+        authService.validateSelfOrAdmin(row.get("clientId", Long.class));
+
+        PaymentDTO payment = fields.includes("payment") && row.get("paymentId") != null
+                ? new PaymentDTO(row.get("paymentId", Long.class), row.get("paymentMoment", Instant.class))
+                : null;
+        OrderDTO dto = new OrderDTO(id,
+                fields.includes("moment") ? row.get("moment", Instant.class) : null,
+                fields.includes("orderStatus") ? row.get("orderStatus", OrderStatus.class) : null,
+                fields.includes("client") ? new ClientDTO(row.get("clientId", Long.class), row.get("clientName", String.class)) : null,
+                payment);
+        dto.setVersion(fields.includes("version") ? row.get("version", Long.class) : null);
+        dto.setTotal(fields.includes("total") ? row.get("total", BigDecimal.class) : null);
+        dto.setItemCount(fields.includes("itemCount") ? row.get("itemCount", Integer.class) : null);
+        if (fields.includes("items")) {
+            orderItemRepository.searchWithProductByOrderId(id).forEach(item -> dto.getItems().add(new OrderItemDTO(item)));
+        }
+        return dto;
     }
 
     @Transactional
     public OrderDTO insert(OrderDTO dto) {
+        return insert(dto, null, null);
+    }
+
+    // the idempotency key, when given, commits or rolls back together with the order
+    @Transactional
+    public OrderDTO insert(OrderDTO dto, String idempotencyId, String fingerprint) {
         logger.info("Creating a order {}", dto.getClient());
-        Order order = new Order();
-        order.setMoment(Instant.now());
-        order.setStatus(OrderStatus.WAITING_PAYMENT);
+        return insertAll(List.of(new Checkout(userService.authenticated(), dto, idempotencyId, fingerprint))).get(0);
+    }
 
-        User user = userService.authenticated();
-        order.setClient(user);
+    /**
+     * Creates the orders of several checkouts in one transaction, in the order
+     * given. Either every order is created or none is.
+     */
+    @Transactional
+    public List<OrderDTO> insertAll(List<Checkout> checkouts) {
+        List<Order> orders = new ArrayList<>(checkouts.size());
+        for (Checkout checkout : checkouts) {
+            Order order = new Order();
+            order.setMoment(Instant.now());
+            order.setStatus(OrderStatus.WAITING_PAYMENT);
+            order.setClient(checkout.client());
+            for (OrderItemDTO itemDTO : checkout.order().getItems()) {
+                Product product = productRepository.getReferenceById(itemDTO.getProductId());
+                order.getItems().add(new OrderItem(order, product, itemDTO.getQuantity(), product.getPrice()));
+            }
+            order.updateTotals();
+            orders.add(order);
+        }
 
-        for (OrderItemDTO itemDTO : dto.getItems()) {
-            Product product = productRepository.getReferenceById(itemDTO.getProductId());
-            OrderItem item = new OrderItem(
-                    order,
-                    product,
-                    itemDTO.getQuantity(),
-                    product.getPrice());
-            order.getItems().add(item);
-        }
-        orderRepository.save(order);
-        orderItemRepository.saveAll(order.getItems());
-        return new OrderDTO(order);
+        // same product order in every checkout, across all orders of the batch, so two
+        // transactions never wait on each other's shards
+        orders.stream()
+                .flatMap(order -> order.getItems().stream())
+                .sorted(Comparator.comparing(item -> item.getProduct().getId()))
+                .forEach(item -> {
+                    if (stockService.reserve(item.getProduct().getId(), item.getQuantity())) {
+                        item.setReserved(item.getQuantity());
+                    }
+                });
+
+        orderRepository.saveAll(orders);
+        List<OrderDTO> result = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            Checkout checkout = checkouts.get(i);
+            // persist, not save: the embedded id is already set and save would merge with a SELECT per item
+            order.getItems().forEach(entityManager::persist);
+            if (checkout.idempotencyId() != null) {
+                // persist, not save: save would merge, and a merge that finds the key another
+                // instance just committed updates it to this order instead of failing on the key
+                entityManager.persist(new IdempotencyKey(
+                        checkout.idempotencyId(), order.getId(), checkout.fingerprint(), Instant.now()));
+            }
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(
+                    order.getId(), checkout.client().getId(), null, order.getStatus(), order.getMoment()));
+            result.add(new OrderDTO(order));
+        }
+        return result;
     }
 
+    // only the items that changed are written, stock follows the quantity differences
     @Transactional
     public OrderDTO update(Long id, OrderDTO dto) {
-        logger.info("Updating a order {} by id: {}", dto.getClient(), id);
-        try {
-            Order order = orderRepository.getReferenceById(id);
-            User user = userService.authenticated();
-            order.setClient(user);
+        logger.info("Updating items of order by id: {}", id);
+        Order order = orderRepository.searchWithItemsById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(id));
+        authService.validateSelfOrAdmin(order.getClient().getId());
+        if (dto.getVersion() != null && !dto.getVersion().equals(order.getVersion())) {
+            throw new ConflictException("Order was changed by another request, reload it and try again");
+        }
+        if (order.getStatus() != OrderStatus.WAITING_PAYMENT) {
+            throw new ConflictException("Order in status " + order.getStatus() + " cannot be edited");
+        }
 
-            for (OrderItemDTO itemDTO : dto.getItems()) {
-                Product product = productRepository.getReferenceById(itemDTO.getProductId());
-                OrderItem item = new OrderItem(
-                        order,
-                        product,
-                        itemDTO.getQuantity(),
-                        product.getPrice());
-                order.getItems().add(item);
+        Map<Long, Integer> requested = new TreeMap<>();
+        for (OrderItemDTO itemDTO : dto.getItems()) {
+            if (itemDTO.getProductId() == null) {
+                throw new BadRequestException("Product id is required");
             }
-            orderRepository.save(order);
-            orderItemRepository.saveAll(order.getItems());
+            if (requested.put(itemDTO.getProductId(), itemDTO.getQuantity()) != null) {
+                throw new BadRequestException("Product id " + itemDTO.getProductId() + " is repeated");
+            }
+        }
+        Map<Long, OrderItem> current = new HashMap<>();
+        for (OrderItem item : order.getItems()) {
+            current.put(item.getProduct().getId(), item);
+        }
+
+        // nothing to write, the version stays as it is
+        if (requested.size() == current.size() && current.entrySet().stream()
+                .allMatch(e -> e.getValue().getQuantity().equals(requested.get(e.getKey())))) {
             return new OrderDTO(order);
+        }
+
+        // bumps the version right away with UPDATE ... WHERE version = ?, a concurrent edit
+        // that loaded the same version fails here before touching any item or stock
+        entityManager.lock(order, LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+
+        // product id order, like checkout, so concurrent edits never wait on each other's stock shards
+        Set<Long> productIds = new TreeSet<>(requested.keySet());
+        productIds.addAll(current.keySet());
+        List<OrderItem> added = new ArrayList<>();
+        List<OrderItem> removed = new ArrayList<>();
+        for (Long productId : productIds) {
+            OrderItem item = current.get(productId);
+            Integer quantity = requested.get(productId);
+            if (item == null) {
+                boolean reserved = stockService.reserve(productId, quantity);
+                Product product = productRepository.getReferenceById(productId);
+                OrderItem newItem = new OrderItem(order, product, quantity, product.getPrice());
+                newItem.setReserved(reserved ? quantity : 0);
+                added.add(newItem);
+            } else if (quantity == null) {
+                stockService.release(productId, item.getReserved());
+                removed.add(item);
+            } else if (!quantity.equals(item.getQuantity())) {
+                int delta = quantity - item.getQuantity();
+                if (delta > 0) {
+                    if (stockService.reserve(productId, delta)) {
+                        item.setReserved(item.getReserved() + delta);
+                    }
+                } else {
+                    if (quantity <= 0) {
+                        throw new BadRequestException("Quantity must be positive");
+                    }
+                    // units that were never reserved are given up first
+                    int released = Math.min(-delta, item.getReserved());
+                    stockService.release(productId, released);
+                    item.setReserved(item.getReserved() - released);
+                }
+                item.setQuantity(quantity);
+            }
+        }
+        order.getItems().removeAll(removed);
+        order.getItems().addAll(added);
+        order.updateTotals();
+        orderItemRepository.deleteAll(removed);
+        // persist, not save: the embedded id is already set and save would merge with a SELECT per item
+        added.forEach(entityManager::persist);
+        orderRepository.flush();
+        return new OrderDTO(order);
+    }
 
-        } catch (EntityNotFoundException e) {
-            throw new ResourceNotFoundException("Resource not found for id: " + id);
+    @Transactional
+    public OrderDTO pay(Long id) {
+        logger.info("Paying a order by id: {}", id);
+        Order order = transition(id, OrderStatus.PAID);
+        order.setPayment(new Payment(null, Instant.now(), order));
+        // the payment takes the order id on flush
+        orderRepository.saveAndFlush(order);
+        return new OrderDTO(order);
+    }
+
+    @Transactional
+    public OrderDTO ship(Long id) {
+        logger.info("Shipping a order by id: {}", id);
+        return new OrderDTO(transition(id, OrderStatus.SHIPPED));
+    }
+
+    @Transactional
+    public OrderDTO deliver(Long id) {
+        logger.info("Delivering a order by id: {}", id);
+        return new OrderDTO(transition(id, OrderStatus.DELIVERED));
+    }
+
+    @Transactional
+    public OrderDTO cancel(Long id) {
+        logger.info("Canceling a order by id: {}", id);
+        Order order = transition(id, OrderStatus.CANCELED);
+        for (OrderItem item : order.getItems()) {
+            stockService.release(item.getProduct().getId(), item.getReserved());
         }
+        return new OrderDTO(order);
     }
 
-    @Transactional(propagation = Propagation.SUPPORTS)
+    // the row lock makes two concurrent transitions of the same order run one after the other
+    private Order transition(Long id, OrderStatus next) {
+        Order order = orderRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new ResourceNotFoundException(id));
+        authService.validateSelfOrAdmin(order.getClient().getId());
+        OrderStatus previous = order.getStatus();
+        if (!previous.canTransitionTo(next)) {
+            throw new ConflictException("Order in status " + previous + " cannot be changed to " + next);
+        }
+        order.setStatus(next);
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(
+                order.getId(), order.getClient().getId(), previous, next, Instant.now()));
+        return order;
+    }
+
+    public OrderStatsDTO findStats() {
+        return new OrderStatsDTO(orderStatsService.getTransitions(), orderEventBus.getDropped());
+    }
+
+    // orders written before the summary columns existed, or loaded by SQL scripts;
+    // each chunk commits on its own so the job never holds many row locks
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillTotals() {
+        int total = 0;
+        int updated;
+        do {
+            updated = orderRepository.backfillTotals(500);
+            total += updated;
+        } while (updated > 0);
+        if (total > 0) {
+            logger.info("Computed the totals of {} orders", total);
+        }
+    }
+
+    @Transactional
     public void delete(Long id) {
         logger.info("Deleting a order by id: {}", id);
-        if (!orderRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Resource not found for id: " + id);
+        try {
+            orderRepository.deletePayments(List.of(id));
+            if (orderRepository.deleteAllByIds(List.of(id)) == 0) {
+                throw new ResourceNotFoundException(id);
+            }
+        } catch (DataIntegrityViolationException e) {
+            // the order has items, the payment delete is rolled back with it
+            throw DatabaseException.REFERENTIAL_INTEGRITY;
+        }
+    }
+
+    // one batch of a bulk delete, orders with items are skipped
+    @Transactional
+    public int deleteAll(List<Long> ids) {
+        List<Long> deletable = orderRepository.searchDeletableIds(ids);
+        if (deletable.isEmpty()) {
+            return 0;
         }
         try {
-         orderRepository.deleteById(id);
+            orderRepository.deletePayments(deletable);
+            return orderRepository.deleteAllByIds(deletable);
         } catch (DataIntegrityViolationException e) {
-            throw new DatabaseException("Referential integrity failure");
+            // one of them got items after the check
+            throw DatabaseException.REFERENTIAL_INTEGRITY;
+        }
+    }
+
+    /**
+     * One POST /orders call: the order as sent, the client resolved from the
+     * caller's token and the idempotency key, if any.
+     */
+    public record Checkout(User client, OrderDTO order, String idempotencyId, String fingerprint) {
+    }
+
+    private record OrderCursor(Instant moment, Long id) {
+
+        String encode() {
+            String raw = moment.toString() + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static OrderCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new OrderCursor(Instant.parse(raw.substring(0, separator)), Long.valueOf(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
         }
     }
 }
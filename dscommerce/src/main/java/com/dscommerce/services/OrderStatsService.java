@@ -0,0 +1,35 @@
+package com.dscommerce.services;
+
+import com.dscommerce.entities.enums.OrderStatus;
+import com.dscommerce.events.OrderEventHandler;
+import com.dscommerce.events.OrderStatusChangedEvent;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts how many orders entered each status since startup.
+ */
+@Service
+public class OrderStatsService implements OrderEventHandler {
+
+    private final AtomicLongArray counts = new AtomicLongArray(OrderStatus.values().length);
+
+    @Override
+    public void handle(List<OrderStatusChangedEvent> events) {
+        for (OrderStatusChangedEvent event : events) {
+            counts.incrementAndGet(event.getStatus().ordinal());
+        }
+    }
+
+    public Map<OrderStatus, Long> getTransitions() {
+        Map<OrderStatus, Long> result = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            result.put(status, counts.get(status.ordinal()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,45 @@
+package com.dscommerce.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Polls the outbox and relays it batch after batch until a batch comes back
+ * short. Several instances can poll the same table at once.
+ */
+@Service
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelayService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelayService.class);
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Value("${outbox.batch-size:200}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval:500}")
+    public void relay() {
+        long start = System.nanoTime();
+        long total = 0;
+        try {
+            int delivered;
+            do {
+                delivered = outboxService.relayBatch(batchSize);
+                total += delivered;
+            } while (delivered == batchSize);
+        } catch (RuntimeException e) {
+            logger.error("Outbox relay failed, undelivered events are retried on the next poll", e);
+        }
+        if (total > 0) {
+            double seconds = (System.nanoTime() - start) / 1e9;
+            logger.debug("Relayed {} outbox events ({} events/s)", total, Math.round(total / seconds));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.dscommerce.services;
+
+import com.dscommerce.entities.OutboxEvent;
+import com.dscommerce.events.OrderStatusChangedEvent;
+import com.dscommerce.events.OutboxSink;
+import com.dscommerce.repositories.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Transactional outbox for order events. The event row commits or rolls back
+ * with the order change that produced it, and the relay later hands committed
+ * rows to the {@link OutboxSink} at least once.
+ */
+@Service
+public class OutboxService {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxSink outboxSink;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // a plain listener runs inside the publisher's transaction
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        String type = event.getPreviousStatus() == null ? "ORDER_CREATED" : "ORDER_STATUS_CHANGED";
+        outboxEventRepository.save(new OutboxEvent(null, event.getOrderId(), type, toJson(event), event.getMoment()));
+    }
+
+    /**
+     * Delivers and deletes the next batch of events not held by another relay.
+     * Returns how many events were delivered.
+     */
+    @Transactional
+    public int relayBatch(int batchSize) {
+        List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        // an order with an older event in another relay's batch waits, so its events stay in order
+        Set<Long> ids = new HashSet<>();
+        Set<Long> aggregateIds = new HashSet<>();
+        for (OutboxEvent event : batch) {
+            ids.add(event.getId());
+            aggregateIds.add(event.getAggregateId());
+        }
+        Long maxId = batch.get(batch.size() - 1).getId();
+        Set<Long> blocked = new HashSet<>(outboxEventRepository.findAggregatesWithOlderEvents(aggregateIds, maxId, ids));
+        List<OutboxEvent> deliverable = blocked.isEmpty()
+                ? batch
+                : batch.stream().filter(event -> !blocked.contains(event.getAggregateId())).toList();
+
+        if (!deliverable.isEmpty()) {
+            outboxSink.publish(deliverable);
+            outboxEventRepository.deleteAllByIdInBatch(deliverable.stream().map(OutboxEvent::getId).toList());
+        }
+        return deliverable.size();
+    }
+
+    private String toJson(OrderStatusChangedEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
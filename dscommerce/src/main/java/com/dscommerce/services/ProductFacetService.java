@@ -0,0 +1,130 @@
+package com.dscommerce.services;
+
+import com.dscommerce.dto.CategoryFacetDTO;
+import com.dscommerce.dto.PriceFacetDTO;
+import com.dscommerce.dto.ProductFacetsDTO;
+import com.dscommerce.events.ProductChangedEvent;
+import com.dscommerce.projections.ProductFacetProjection;
+import com.dscommerce.repositories.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Keeps the catalog facet counts in memory. The counts are loaded once at
+ * startup and then adjusted on every committed product write, so the listing
+ * never runs a GROUP BY to answer them.
+ */
+@Service
+public class ProductFacetService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductFacetService.class);
+
+    // lower bounds of the price buckets, the last one is open-ended
+    private static final double[] PRICE_BUCKETS = {0.0, 100.0, 500.0, 1000.0, 5000.0};
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final Map<Long, FacetEntry> entries = new HashMap<>();
+    private final Map<Long, Long> categoryCounts = new TreeMap<>();
+    private final long[] priceCounts = new long[PRICE_BUCKETS.length];
+
+    private volatile ProductFacetsDTO facets = new ProductFacetsDTO();
+
+    public ProductFacetsDTO getFacets() {
+        return facets;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        logger.info("Rebuilding product facet counts");
+        Map<Long, FacetEntry> loaded = new HashMap<>();
+        for (ProductFacetProjection row : productRepository.searchFacetRows()) {
+            FacetEntry entry = loaded.computeIfAbsent(row.getProductId(),
+                    id -> new FacetEntry(row.getPrice(), new HashSet<>()));
+            if (row.getCategoryId() != null) {
+                entry.categoryIds().add(row.getCategoryId());
+            }
+        }
+
+        entries.clear();
+        categoryCounts.clear();
+        Arrays.fill(priceCounts, 0L);
+        loaded.forEach(this::add);
+        publish();
+    }
+
+    // before the catalog cache drops the pages that show these counts
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        FacetEntry previous = entries.remove(event.getProductId());
+        if (previous != null) {
+            count(previous, -1);
+        }
+        if (!event.isDeleted()) {
+            add(event.getProductId(), new FacetEntry(event.getPrice(), event.getCategoryIds()));
+        }
+        publish();
+    }
+
+    private void add(Long productId, FacetEntry entry) {
+        entries.put(productId, entry);
+        count(entry, 1);
+    }
+
+    private void count(FacetEntry entry, long delta) {
+        for (Long categoryId : entry.categoryIds()) {
+            long value = categoryCounts.getOrDefault(categoryId, 0L) + delta;
+            if (value > 0) {
+                categoryCounts.put(categoryId, value);
+            } else {
+                categoryCounts.remove(categoryId);
+            }
+        }
+        if (entry.price() != null) {
+            priceCounts[bucketOf(entry.price().doubleValue())] += delta;
+        }
+    }
+
+    private static int bucketOf(double price) {
+        int bucket = 0;
+        while (bucket + 1 < PRICE_BUCKETS.length && price >= PRICE_BUCKETS[bucket + 1]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    // reads only ever see a complete, immutable copy
+    private void publish() {
+        List<CategoryFacetDTO> categories = new ArrayList<>();
+        categoryCounts.forEach((id, count) -> categories.add(new CategoryFacetDTO(id, count)));
+
+        List<PriceFacetDTO> prices = new ArrayList<>();
+        for (int i = 0; i < PRICE_BUCKETS.length; i++) {
+            Double max = i + 1 < PRICE_BUCKETS.length ? PRICE_BUCKETS[i + 1] : null;
+            prices.add(new PriceFacetDTO(PRICE_BUCKETS[i], max, priceCounts[i]));
+        }
+        facets = new ProductFacetsDTO(List.copyOf(categories), List.copyOf(prices));
+    }
+
+    private record FacetEntry(BigDecimal price, Set<Long> categoryIds) {}
+}
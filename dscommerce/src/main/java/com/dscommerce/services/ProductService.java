@@ -2,25 +2,42 @@ package com.dscommerce.services;
 
 import com.dscommerce.controllers.ProductController;
 import com.dscommerce.dto.CategoryDTO;
+import com.dscommerce.dto.FieldSelection;
+import com.dscommerce.dto.ProductBatchItemDTO;
 import com.dscommerce.dto.ProductDTO;
 import com.dscommerce.dto.ProductMinDTO;
+import com.dscommerce.dto.ProductPageDTO;
 import com.dscommerce.entities.Category;
 import com.dscommerce.entities.Product;
+import com.dscommerce.events.ProductChangedEvent;
 import com.dscommerce.repositories.CategoryRepository;
 import com.dscommerce.repositories.ProductRepository;
+import com.dscommerce.services.exceptions.BadRequestException;
 import com.dscommerce.services.exceptions.DatabaseException;
 import com.dscommerce.services.exceptions.ResourceNotFoundException;
+import com.dscommerce.util.TextNormalizer;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -28,25 +45,110 @@ public class ProductService {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
 
+    public static final int MAX_BATCH_SIZE = 100;
+
+    // product columns fields= can leave out
+    private static final List<String> COLUMNS = List.of("name", "description", "price", "imgUrl");
+
     @Autowired
     private ProductRepository productRepository;
 
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private ProductFacetService productFacetService;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Transactional(readOnly = true)
-    public Page<ProductMinDTO> findAll(String name, Pageable pageable) {
+    public ProductPageDTO findAll(String name, List<Long> categoryIds, BigDecimal minPrice, BigDecimal maxPrice,
+                                  Pageable pageable) {
         logger.info("Finding all products");
-        Page<Product> productPage = productRepository.searchByName(name, pageable);
-        return productPage.map(ProductMinDTO::new);
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new BadRequestException("minPrice must not be greater than maxPrice");
+        }
+        boolean anyCategory = categoryIds == null || categoryIds.isEmpty();
+        Page<Product> productPage = productRepository.searchProducts(
+                TextNormalizer.normalize(name),
+                anyCategory ? List.of() : categoryIds,
+                anyCategory,
+                minPrice,
+                maxPrice,
+                pageable);
+        return new ProductPageDTO(productPage.map(ProductMinDTO::new), productFacetService.getFacets());
     }
 
     @Transactional(readOnly = true)
     public ProductDTO findById(Long id) {
         logger.info("Finding one product by id: {}", id);
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Resource not found for id: " + id));
-        return new ProductDTO(product);
+        Product product = productRepository.searchWithCategoriesById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(id));
+        ProductDTO dto = new ProductDTO(product);
+        dto.setStock(stockService.findStock(List.of(id)).get(id));
+        return dto;
+    }
+
+    // only the selected columns are read, categories and stock only when selected
+    @Transactional(readOnly = true)
+    public ProductDTO findById(Long id, FieldSelection fields) {
+        if (fields.isAll()) {
+            return findById(id);
+        }
+        logger.info("Finding fields {} of one product by id: {}", fields, id);
+        StringBuilder jpql = new StringBuilder("SELECT obj.id AS id");
+        for (String column : COLUMNS) {
+            if (fields.includes(column)) {
+                jpql.append(", obj.").append(column).append(" AS ").append(column);
+            }
+        }
+        jpql.append(" FROM Product obj WHERE obj.id = :id");
+        Tuple row = entityManager.createQuery(jpql.toString(), Tuple.class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException(id));
+
+        ProductDTO dto = new ProductDTO(id,
+                fields.includes("name") ? row.get("name", String.class) : null,
+                fields.includes("description") ? row.get("description", String.class) : null,
+                fields.includes("price") ? row.get("price", BigDecimal.class) : null,
+                fields.includes("imgUrl") ? row.get("imgUrl", String.class) : null);
+        if (fields.includes("categories")) {
+            categoryRepository.searchByProductId(id).forEach(cat -> dto.getCategories().add(new CategoryDTO(cat)));
+        }
+        if (fields.includes("stock")) {
+            dto.setStock(stockService.findStock(List.of(id)).get(id));
+        }
+        return dto;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductBatchItemDTO> findAllByIds(List<Long> ids) {
+        logger.info("Finding {} products by ids", ids.size());
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("A maximum of " + MAX_BATCH_SIZE + " ids is allowed per request");
+        }
+
+        // one IN query for the products, a second one for their categories
+        Map<Long, ProductDTO> found = new HashMap<>();
+        List<Product> products = productRepository.findAllById(new LinkedHashSet<>(ids));
+        if (!products.isEmpty()) {
+            Map<Long, Integer> stock = stockService.findStock(products.stream().map(Product::getId).toList());
+            for (Product product : productRepository.searchProductsWithCategories(products)) {
+                ProductDTO dto = new ProductDTO(product);
+                dto.setStock(stock.get(product.getId()));
+                found.put(product.getId(), dto);
+            }
+        }
+        return ids.stream().map(id -> new ProductBatchItemDTO(id, found.get(id))).toList();
     }
 
     @Transactional
@@ -56,7 +158,8 @@ public class ProductService {
 
         dtoToEntity(dto, entity);
         entity = productRepository.save(entity);
-        return new ProductDTO(entity);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(entity));
+        return withStock(entity, dto.getStock());
     }
 
     @Transactional
@@ -66,14 +169,26 @@ public class ProductService {
             Product entity = productRepository.getReferenceById(id);
             dtoToEntity(dto, entity);
             entity = productRepository.save(entity);
-            return new ProductDTO(entity);
+            eventPublisher.publishEvent(ProductChangedEvent.saved(entity));
+            return withStock(entity, dto.getStock());
         } catch (EntityNotFoundException e) {
-            throw new ResourceNotFoundException("Resource not found for id: " + id);
+            throw new ResourceNotFoundException(id);
+        }
+    }
+
+    // a null stock leaves the current stock (or the lack of tracking) untouched
+    private ProductDTO withStock(Product entity, Integer stock) {
+        if (stock != null) {
+            stockService.setStock(entity.getId(), stock);
         }
+        ProductDTO result = new ProductDTO(entity);
+        result.setStock(stockService.findStock(List.of(entity.getId())).get(entity.getId()));
+        return result;
     }
 
     private void dtoToEntity(ProductDTO dto, Product entity) {
         entity.setName(dto.getName());
+        entity.setNameNormalized(TextNormalizer.normalize(dto.getName()));
         entity.setDescription(dto.getDescription());
         entity.setPrice(dto.getPrice());
         entity.setImgUrl(dto.getImgUrl());
@@ -86,16 +201,54 @@ public class ProductService {
         }
     }
 
-    @Transactional(propagation = Propagation.SUPPORTS)
+    // rows loaded by SQL scripts or created before the column existed
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void normalizeMissingNames() {
+        List<Product> pending = productRepository.findByNameNormalizedIsNull(PageRequest.of(0, 500));
+        int total = 0;
+        while (!pending.isEmpty()) {
+            for (Product product : pending) {
+                String normalized = TextNormalizer.normalize(product.getName());
+                product.setNameNormalized(normalized != null ? normalized : "");
+            }
+            productRepository.flush();
+            total += pending.size();
+            pending = productRepository.findByNameNormalizedIsNull(PageRequest.of(0, 500));
+        }
+        if (total > 0) {
+            logger.info("Normalized the search name of {} products", total);
+        }
+    }
+
+    @Transactional
     public void delete(Long id) {
         logger.info("Deleting a product by id: {}", id);
-        if (!productRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Resource not found for id: " + id);
+        try {
+            if (productRepository.deleteAllByIds(List.of(id)) == 0) {
+                throw new ResourceNotFoundException(id);
+            }
+        } catch (DataIntegrityViolationException e) {
+            throw DatabaseException.REFERENTIAL_INTEGRITY;
+        }
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
+    }
+
+    // one batch of a bulk delete, products that orders refer to are skipped
+    @Transactional
+    public int deleteAll(List<Long> ids) {
+        List<Long> deletable = productRepository.searchDeletableIds(ids);
+        if (deletable.isEmpty()) {
+            return 0;
         }
         try {
-         productRepository.deleteById(id);
+            productRepository.deleteAllByIds(deletable);
         } catch (DataIntegrityViolationException e) {
-            throw new DatabaseException("Referential integrity failure");
+            // one of them was ordered after the check
+            throw DatabaseException.REFERENTIAL_INTEGRITY;
         }
+        // facets, suggestions and the catalog cache drop them after the commit
+        deletable.forEach(id -> eventPublisher.publishEvent(ProductChangedEvent.deleted(id)));
+        return deletable.size();
     }
 }
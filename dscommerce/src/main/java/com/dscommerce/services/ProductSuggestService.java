@@ -0,0 +1,105 @@
+package com.dscommerce.services;
+
+import com.dscommerce.dto.ProductSuggestionDTO;
+import com.dscommerce.events.ProductChangedEvent;
+import com.dscommerce.projections.ProductSuggestProjection;
+import com.dscommerce.repositories.ProductRepository;
+import com.dscommerce.util.SuggestionTrie;
+import com.dscommerce.util.TextNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Type-ahead over product names. Names are normalized and indexed under
+ * every word, weighted by units sold, and served from memory without
+ * touching the database.
+ */
+@Service
+public class ProductSuggestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSuggestService.class);
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // last indexed version of each product, guarded by this
+    private final Map<Long, SuggestionTrie.Entry> entries = new HashMap<>();
+
+    private volatile SuggestionTrie trie = new SuggestionTrie(MAX_SUGGESTIONS);
+
+    public List<ProductSuggestionDTO> suggest(String query, int limit) {
+        String prefix = TextNormalizer.normalize(query);
+        if (prefix == null || prefix.isEmpty()) {
+            return List.of();
+        }
+        int size = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        return trie.top(prefix, size).stream()
+                .map(entry -> new ProductSuggestionDTO(entry.id(), entry.name()))
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        logger.info("Rebuilding product name suggestions");
+        entries.clear();
+        Map<String, List<SuggestionTrie.Entry>> entriesByKey = new HashMap<>();
+        for (ProductSuggestProjection row : productRepository.searchSuggestRows()) {
+            SuggestionTrie.Entry entry = new SuggestionTrie.Entry(row.getProductId(), row.getName(), row.getWeight());
+            entries.put(entry.id(), entry);
+            for (String key : keysOf(entry.name())) {
+                entriesByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+            }
+        }
+        trie = SuggestionTrie.build(MAX_SUGGESTIONS, entriesByKey);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        SuggestionTrie updated = trie;
+        SuggestionTrie.Entry previous = entries.remove(event.getProductId());
+        if (previous != null) {
+            for (String key : keysOf(previous.name())) {
+                updated = updated.remove(key, previous.id());
+            }
+        }
+        if (!event.isDeleted() && event.getName() != null) {
+            long weight = previous != null ? previous.weight() : 0L;
+            SuggestionTrie.Entry entry = new SuggestionTrie.Entry(event.getProductId(), event.getName(), weight);
+            entries.put(entry.id(), entry);
+            for (String key : keysOf(entry.name())) {
+                updated = updated.put(key, entry);
+            }
+        }
+        trie = updated;
+    }
+
+    // "PC Gamer" is indexed as "pc gamer" and "gamer"
+    private static Set<String> keysOf(String name) {
+        Set<String> keys = new LinkedHashSet<>();
+        String normalized = TextNormalizer.normalize(name);
+        if (normalized == null || normalized.isEmpty()) {
+            return keys;
+        }
+        keys.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            keys.add(normalized.substring(i + 1));
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,405 @@
+package com.dscommerce.services;
+
+import com.dscommerce.dto.CategorySalesDTO;
+import com.dscommerce.dto.DailySalesDTO;
+import com.dscommerce.dto.OrderDTO;
+import com.dscommerce.dto.OrderItemDTO;
+import com.dscommerce.dto.ProductSalesDTO;
+import com.dscommerce.entities.enums.OrderStatus;
+import com.dscommerce.events.OrderEventHandler;
+import com.dscommerce.events.OrderStatusChangedEvent;
+import com.dscommerce.projections.OrderSalesProjection;
+import com.dscommerce.projections.ProductCategoryProjection;
+import com.dscommerce.repositories.CategoryRepository;
+import com.dscommerce.repositories.OrderArchiveRepository;
+import com.dscommerce.repositories.OrderItemRepository;
+import com.dscommerce.repositories.OrderRepository;
+import com.dscommerce.services.exceptions.ConflictException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Revenue and units of paid orders by day, product and category, kept in
+ * memory. Orders are added when they are paid and taken out again when a paid
+ * order is canceled, so the endpoints never aggregate order items. A rebuild
+ * recomputes everything from the order tables and the archive in parallel id
+ * ranges while changes that arrive meanwhile are held back and replayed on top.
+ * Only paid orders that can still be canceled are remembered. When the event
+ * bus drops a change that matters here, the next check rebuilds.
+ */
+@Service
+public class SalesAnalyticsService implements OrderEventHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesAnalyticsService.class);
+
+    private static final long CHUNK_SIZE = 5_000;
+    private static final Set<OrderStatus> PAID_STATUSES =
+            EnumSet.of(OrderStatus.PAID, OrderStatus.SHIPPED, OrderStatus.DELIVERED);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private OrderArchiveRepository orderArchiveRepository;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${analytics.rebuild-threads:4}")
+    private int rebuildThreads;
+
+    private volatile Rollups rollups = new Rollups();
+
+    // set when a change was dropped, the rollups are off until the next rebuild
+    private final AtomicBoolean stale = new AtomicBoolean();
+
+    // events seen while a rebuild runs, null otherwise; guarded by this
+    private List<OrderStatusChangedEvent> pending;
+
+    public List<DailySalesDTO> findDaily(LocalDate from, LocalDate to) {
+        return rollups.byDay.entrySet().stream()
+                .filter(e -> (from == null || !e.getKey().isBefore(from)) && (to == null || !e.getKey().isAfter(to)))
+                .sorted(Map.Entry.comparingByKey())
+                .map(e -> new DailySalesDTO(e.getKey(), e.getValue().units(), e.getValue().revenue()))
+                .toList();
+    }
+
+    public List<ProductSalesDTO> findByProduct() {
+        return rollups.byProduct.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(e -> new ProductSalesDTO(e.getKey(), e.getValue().units(), e.getValue().revenue()))
+                .toList();
+    }
+
+    public List<CategorySalesDTO> findByCategory() {
+        return rollups.byCategory.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(e -> new CategorySalesDTO(e.getKey(), e.getValue().units(), e.getValue().revenue()))
+                .toList();
+    }
+
+    public List<ProductSalesDTO> findTopProducts(int limit, boolean byUnits) {
+        Comparator<ProductSalesDTO> order = byUnits
+                ? Comparator.comparing(ProductSalesDTO::getUnits)
+                : Comparator.comparing(ProductSalesDTO::getRevenue);
+        return findByProduct().stream()
+                .sorted(order.reversed().thenComparing(ProductSalesDTO::getProductId))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public synchronized void handle(List<OrderStatusChangedEvent> events) {
+        List<OrderStatusChangedEvent> relevant = events.stream().filter(SalesAnalyticsService::isRelevant).toList();
+        if (relevant.isEmpty()) {
+            return;
+        }
+        if (pending != null) {
+            pending.addAll(relevant);
+            return;
+        }
+        apply(rollups, relevant);
+    }
+
+    @Override
+    public void dropped(OrderStatusChangedEvent event) {
+        if (isRelevant(event) && !stale.getAndSet(true)) {
+            logger.warn("Sales analytics missed the change of order {} to {}, rebuilding on the next check",
+                    event.getOrderId(), event.getStatus());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.stale-check-ms:60000}")
+    public void rebuildIfStale() {
+        if (!stale.getAndSet(false)) {
+            return;
+        }
+        try {
+            rebuild();
+            logger.info("Sales analytics rebuilt after dropped order events");
+        } catch (RuntimeException e) {
+            // a running rebuild may have scanned before the drop, try again on the next check
+            stale.set(true);
+            logger.error("Sales analytics rebuild after dropped order events failed", e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (this) {
+            if (pending != null) {
+                throw new ConflictException("A rebuild is already running");
+            }
+            pending = new ArrayList<>();
+        }
+        Rollups fresh = null;
+        try {
+            fresh = scan(min(orderRepository.findMinId(), orderArchiveRepository.findMinId()),
+                    max(orderRepository.findMaxId(), orderArchiveRepository.findMaxId()));
+        } finally {
+            synchronized (this) {
+                // on failure the old rollups stay and catch up with what came in meanwhile
+                Rollups target = fresh != null ? fresh : rollups;
+                // replaying is safe, changes the scan already saw are no-ops
+                apply(target, pending);
+                target.scanned.clear();
+                pending = null;
+                rollups = target;
+            }
+        }
+    }
+
+    private Rollups scan(Long minId, Long maxId) {
+        Rollups fresh = new Rollups();
+        if (minId == null) {
+            return fresh;
+        }
+        int chunks = (int) ((maxId - minId) / CHUNK_SIZE + 1);
+        logger.info("Rebuilding sales analytics from {} order id ranges", chunks);
+        // live and archived orders of a range are read from one snapshot, an order that is
+        // archived meanwhile is seen in exactly one of the two
+        TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+        snapshot.setReadOnly(true);
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(rebuildThreads, chunks)));
+        try {
+            List<Future<Rollups>> futures = new ArrayList<>(chunks);
+            for (int i = 0; i < chunks; i++) {
+                long fromId = minId + i * CHUNK_SIZE;
+                futures.add(executor.submit(() -> snapshot.execute(status -> {
+                    Rollups partial = new Rollups();
+                    Map<Long, List<OrderSalesProjection>> rowsByOrder = groupByOrder(
+                            orderItemRepository.searchSalesRowsInRange(fromId, fromId + CHUNK_SIZE, PAID_STATUSES));
+                    rowsByOrder.putAll(groupByOrder(archivedSalesRows(fromId, fromId + CHUNK_SIZE)));
+                    rowsByOrder.forEach((orderId, rows) -> {
+                        partial.scanned.add(orderId);
+                        if (isCancelable(rows.get(0).getStatus())) {
+                            partial.paidOrders.add(orderId);
+                        }
+                        add(partial, rows, 1);
+                    });
+                    return partial;
+                })));
+            }
+            for (Future<Rollups> future : futures) {
+                fresh.merge(future.get());
+            }
+            return fresh;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Sales analytics rebuild failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // the items are in the payload; categories are today's, as the join gives for live orders
+    private List<OrderSalesProjection> archivedSalesRows(long fromId, long toId) {
+        List<OrderDTO> orders = orderArchiveService.findInRange(fromId, toId).stream()
+                .filter(order -> PAID_STATUSES.contains(order.getOrderStatus()))
+                .toList();
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> productIds = new HashSet<>();
+        orders.forEach(order -> order.getItems().forEach(item -> productIds.add(item.getProductId())));
+        Map<Long, List<Long>> categoriesByProduct = new HashMap<>();
+        for (ProductCategoryProjection row : categoryRepository.searchByProductIds(productIds)) {
+            categoriesByProduct.computeIfAbsent(row.getProductId(), id -> new ArrayList<>()).add(row.getCategoryId());
+        }
+        List<OrderSalesProjection> rows = new ArrayList<>();
+        for (OrderDTO order : orders) {
+            for (OrderItemDTO item : order.getItems()) {
+                List<Long> categoryIds = categoriesByProduct.get(item.getProductId());
+                if (categoryIds == null) {
+                    // like the LEFT JOIN, an item without categories still counts for its day and product
+                    categoryIds = Collections.singletonList(null);
+                }
+                for (Long categoryId : categoryIds) {
+                    rows.add(new ArchivedSalesRow(order.getId(), order.getMoment(), order.getOrderStatus(),
+                            item.getProductId(), categoryId, item.getQuantity(), item.getPrice()));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static Long min(Long a, Long b) {
+        return a == null ? b : b == null ? a : Math.min(a, b);
+    }
+
+    private static Long max(Long a, Long b) {
+        return a == null ? b : b == null ? a : Math.max(a, b);
+    }
+
+    private void apply(Rollups target, List<OrderStatusChangedEvent> events) {
+        Set<Long> orderIds = new HashSet<>();
+        events.stream().filter(event -> signOf(event) != 0).forEach(event -> orderIds.add(event.getOrderId()));
+        Map<Long, List<OrderSalesProjection>> rowsByOrder = orderIds.isEmpty()
+                ? Map.of()
+                : groupByOrder(orderItemRepository.searchSalesRows(orderIds));
+        for (OrderStatusChangedEvent event : events) {
+            Long orderId = event.getOrderId();
+            List<OrderSalesProjection> rows = rowsByOrder.getOrDefault(orderId, List.of());
+            int sign = signOf(event);
+            // an order is counted at most once, whatever order the changes arrive in
+            if (sign > 0 && !target.scanned.contains(orderId) && target.paidOrders.add(orderId)
+                    || sign < 0 && target.paidOrders.remove(orderId)) {
+                add(target, rows, sign);
+            } else if (sign == 0) {
+                // shipped or delivered, it stays counted and is forgotten
+                target.paidOrders.remove(orderId);
+            }
+        }
+    }
+
+    private static Map<Long, List<OrderSalesProjection>> groupByOrder(List<OrderSalesProjection> rows) {
+        Map<Long, List<OrderSalesProjection>> rowsByOrder = new HashMap<>();
+        for (OrderSalesProjection row : rows) {
+            rowsByOrder.computeIfAbsent(row.getOrderId(), id -> new ArrayList<>()).add(row);
+        }
+        return rowsByOrder;
+    }
+
+    // changes that add or remove an order, or settle one that can no longer be canceled
+    private static boolean isRelevant(OrderStatusChangedEvent event) {
+        return signOf(event) != 0
+                || PAID_STATUSES.contains(event.getStatus()) && !isCancelable(event.getStatus());
+    }
+
+    private static boolean isCancelable(OrderStatus status) {
+        return status.canTransitionTo(OrderStatus.CANCELED);
+    }
+
+    // paid adds the order, canceling a paid order takes it out again
+    private static int signOf(OrderStatusChangedEvent event) {
+        if (event.getStatus() == OrderStatus.PAID) {
+            return 1;
+        }
+        if (event.getStatus() == OrderStatus.CANCELED && PAID_STATUSES.contains(event.getPreviousStatus())) {
+            return -1;
+        }
+        return 0;
+    }
+
+    private static void add(Rollups target, List<OrderSalesProjection> rows, int sign) {
+        Set<List<Long>> itemsSeen = new HashSet<>();
+        for (OrderSalesProjection row : rows) {
+            Totals totals = new Totals((long) sign * row.getQuantity(),
+                    row.getPrice().multiply(BigDecimal.valueOf((long) sign * row.getQuantity())));
+            if (row.getCategoryId() != null) {
+                target.byCategory.merge(row.getCategoryId(), totals, Totals::plus);
+            }
+            // rows repeat per category, count the item itself once
+            if (itemsSeen.add(List.of(row.getOrderId(), row.getProductId()))) {
+                target.byDay.merge(LocalDate.ofInstant(row.getMoment(), ZoneOffset.UTC), totals, Totals::plus);
+                target.byProduct.merge(row.getProductId(), totals, Totals::plus);
+            }
+        }
+    }
+
+    private record ArchivedSalesRow(Long orderId, Instant moment, OrderStatus status, Long productId, Long categoryId,
+                                    Integer quantity, BigDecimal price) implements OrderSalesProjection {
+
+        @Override
+        public Long getOrderId() {
+            return orderId;
+        }
+
+        @Override
+        public Instant getMoment() {
+            return moment;
+        }
+
+        @Override
+        public OrderStatus getStatus() {
+            return status;
+        }
+
+        @Override
+        public Long getProductId() {
+            return productId;
+        }
+
+        @Override
+        public Long getCategoryId() {
+            return categoryId;
+        }
+
+        @Override
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        @Override
+        public BigDecimal getPrice() {
+            return price;
+        }
+    }
+
+    private record Totals(long units, BigDecimal revenue) {
+
+        Totals plus(Totals other) {
+            return new Totals(units + other.units, revenue.add(other.revenue));
+        }
+    }
+
+    private static final class Rollups {
+
+        final Map<LocalDate, Totals> byDay = new ConcurrentHashMap<>();
+        final Map<Long, Totals> byProduct = new ConcurrentHashMap<>();
+        final Map<Long, Totals> byCategory = new ConcurrentHashMap<>();
+        // counted orders that can still be canceled
+        final Set<Long> paidOrders = ConcurrentHashMap.newKeySet();
+        // every order a rebuild counted, only until the changes held back meanwhile are replayed
+        final Set<Long> scanned = ConcurrentHashMap.newKeySet();
+
+        void merge(Rollups other) {
+            paidOrders.addAll(other.paidOrders);
+            scanned.addAll(other.scanned);
+            other.byDay.forEach((key, totals) -> byDay.merge(key, totals, Totals::plus));
+            other.byProduct.forEach((key, totals) -> byProduct.merge(key, totals, Totals::plus));
+            other.byCategory.forEach((key, totals) -> byCategory.merge(key, totals, Totals::plus));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.dscommerce.services;
+
+import com.dscommerce.entities.ProductStock;
+import com.dscommerce.projections.ProductStockProjection;
+import com.dscommerce.projections.ProductStockTotalProjection;
+import com.dscommerce.repositories.ProductStockRepository;
+import com.dscommerce.services.exceptions.BadRequestException;
+import com.dscommerce.services.exceptions.ConflictException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Product stock kept as a set of shard rows. A reservation takes one shard
+ * that no other checkout is holding, so checkouts of the same product run
+ * side by side instead of queueing on one row. Products without shard rows
+ * are not stock-tracked and are never limited.
+ */
+@Service
+public class StockService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockService.class);
+
+    @Autowired
+    private ProductStockRepository productStockRepository;
+
+    @Value("${stock.shards:8}")
+    private int shards;
+
+    // false when the product is not stock-tracked and nothing was taken
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean reserve(Long productId, Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new BadRequestException("Quantity must be positive");
+        }
+        int rotation = ThreadLocalRandom.current().nextInt(shards);
+        List<Integer> free = productStockRepository.lockFreeShard(productId, quantity, rotation, shards);
+        if (!free.isEmpty()) {
+            productStockRepository.reserve(productId, free.get(0), quantity);
+            return true;
+        }
+
+        // no free shard could cover it, wait for all of them in a fixed order and drain
+        List<ProductStockProjection> rows = productStockRepository.lockShards(productId);
+        if (rows.isEmpty()) {
+            return false;
+        }
+        long available = rows.stream().mapToLong(ProductStockProjection::getQuantity).sum();
+        if (available < quantity) {
+            throw new ConflictException("Insufficient stock for product id: " + productId);
+        }
+        int remaining = quantity;
+        for (ProductStockProjection row : rows) {
+            int taken = (int) Math.min(row.getQuantity(), remaining);
+            if (taken > 0) {
+                productStockRepository.reserve(productId, row.getShard(), taken);
+                remaining -= taken;
+            }
+        }
+        return true;
+    }
+
+    // quantity is what reserve() took, nothing is released for units that were never reserved
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(Long productId, Integer quantity) {
+        if (quantity <= 0) {
+            return;
+        }
+        int shard = ThreadLocalRandom.current().nextInt(shards);
+        if (productStockRepository.release(productId, shard, quantity) == 0) {
+            // shard 0 always exists for a tracked product, whatever the shard count was
+            productStockRepository.release(productId, 0, quantity);
+        }
+    }
+
+    @Transactional
+    public void setStock(Long productId, int quantity) {
+        logger.info("Setting stock of product {} to {}", productId, quantity);
+        productStockRepository.deleteByProductId(productId);
+        List<ProductStock> rows = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            int share = quantity / shards + (shard < quantity % shards ? 1 : 0);
+            rows.add(new ProductStock(productId, shard, share));
+        }
+        productStockRepository.saveAll(rows);
+    }
+
+    // products that are not stock-tracked are left out of the map
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> findStock(List<Long> productIds) {
+        Map<Long, Integer> stock = new HashMap<>();
+        if (!productIds.isEmpty()) {
+            for (ProductStockTotalProjection row : productStockRepository.sumByProductIds(productIds)) {
+                stock.put(row.getProductId(), row.getQuantity().intValue());
+            }
+        }
+        return stock;
+    }
+}
@@ -0,0 +1,7 @@
+package com.dscommerce.services.exceptions;
+
+public class BadRequestException extends DomainException {
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
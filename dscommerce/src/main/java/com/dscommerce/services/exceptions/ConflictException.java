@@ -0,0 +1,7 @@
+package com.dscommerce.services.exceptions;
+
+public class ConflictException extends DomainException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,10 @@
 package com.dscommerce.services.exceptions;
 
-public class DatabaseException extends RuntimeException {
+public class DatabaseException extends DomainException {
+
+    // stackless and immutable, one instance serves every request
+    public static final DatabaseException REFERENTIAL_INTEGRITY = new DatabaseException("Referential integrity failure");
+
     public DatabaseException(String message) {
         super(message);
     }
@@ -0,0 +1,14 @@
+package com.dscommerce.services.exceptions;
+
+/**
+ * Base of the exceptions services throw for expected outcomes: an unknown id,
+ * a forbidden resource, invalid input. ResourceExceptionHandler turns them into
+ * error responses and they are never logged with a trace, so none is captured;
+ * a 404 costs no stack walk.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -1,6 +1,10 @@
 package com.dscommerce.services.exceptions;
 
-public class ForbiddenException extends RuntimeException {
+public class ForbiddenException extends DomainException {
+
+    // stackless and immutable, one instance serves every request
+    public static final ForbiddenException ACCESS_DENIED = new ForbiddenException("Access denied");
+
     public ForbiddenException(String message) {
         super(message);
     }
@@ -1,7 +1,22 @@
 package com.dscommerce.services.exceptions;
 
-public class ResourceNotFoundException extends RuntimeException {
+public class ResourceNotFoundException extends DomainException {
+
+    private final Long id;
+
     public ResourceNotFoundException(String message) {
         super(message);
+        this.id = null;
+    }
+
+    // the message is only built when the error response is written
+    public ResourceNotFoundException(Long id) {
+        super(null);
+        this.id = id;
+    }
+
+    @Override
+    public String getMessage() {
+        return id == null ? super.getMessage() : "Resource not found for id: " + id;
     }
 }
@@ -0,0 +1,151 @@
+package com.dscommerce.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable prefix tree where every node caches the best weighted entries
+ * below it, so a lookup is a walk down the prefix and nothing else.
+ * Writes copy only the path they touch and return a new trie, which lets
+ * readers keep using the old one without locks.
+ */
+public final class SuggestionTrie {
+
+    public record Entry(Long id, String name, long weight) {}
+
+    private static final Comparator<Entry> BY_WEIGHT = Comparator
+            .comparingLong(Entry::weight).reversed()
+            .thenComparing(Entry::name)
+            .thenComparing(Entry::id);
+
+    private final int topK;
+    private final Node root;
+
+    public SuggestionTrie(int topK) {
+        this(topK, null);
+    }
+
+    private SuggestionTrie(int topK, Node root) {
+        this.topK = topK;
+        this.root = root;
+    }
+
+    public static SuggestionTrie build(int topK, Map<String, List<Entry>> entriesByKey) {
+        Builder builder = new Builder();
+        entriesByKey.forEach((key, entries) -> {
+            Builder node = builder;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new Builder());
+            }
+            node.terminals.addAll(entries);
+        });
+        return new SuggestionTrie(topK, builder.freeze(topK));
+    }
+
+    public List<Entry> top(String prefix, int limit) {
+        Node node = root;
+        for (int i = 0; node != null && i < prefix.length(); i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        return node.top.size() <= limit ? node.top : node.top.subList(0, limit);
+    }
+
+    public SuggestionTrie put(String key, Entry entry) {
+        return new SuggestionTrie(topK, put(root, key, 0, entry));
+    }
+
+    public SuggestionTrie remove(String key, Long id) {
+        return new SuggestionTrie(topK, remove(root, key, 0, id));
+    }
+
+    private Node put(Node node, String key, int depth, Entry entry) {
+        Map<Character, Node> children = node == null ? Map.of() : node.children;
+        List<Entry> terminals = node == null ? List.of() : node.terminals;
+        if (depth == key.length()) {
+            List<Entry> copy = new ArrayList<>(terminals);
+            copy.removeIf(e -> e.id().equals(entry.id()));
+            copy.add(entry);
+            terminals = copy;
+        } else {
+            char c = key.charAt(depth);
+            Map<Character, Node> copy = new HashMap<>(children);
+            copy.put(c, put(children.get(c), key, depth + 1, entry));
+            children = copy;
+        }
+        return Node.of(children, terminals, topK);
+    }
+
+    private Node remove(Node node, String key, int depth, Long id) {
+        if (node == null) {
+            return null;
+        }
+        Map<Character, Node> children = node.children;
+        List<Entry> terminals = node.terminals;
+        if (depth == key.length()) {
+            List<Entry> copy = new ArrayList<>(terminals);
+            copy.removeIf(e -> e.id().equals(id));
+            terminals = copy;
+        } else {
+            char c = key.charAt(depth);
+            if (!children.containsKey(c)) {
+                return node;
+            }
+            Map<Character, Node> copy = new HashMap<>(children);
+            Node child = remove(children.get(c), key, depth + 1, id);
+            if (child == null) {
+                copy.remove(c);
+            } else {
+                copy.put(c, child);
+            }
+            children = copy;
+        }
+        if (children.isEmpty() && terminals.isEmpty()) {
+            return null;
+        }
+        return Node.of(children, terminals, topK);
+    }
+
+    private record Node(Map<Character, Node> children, List<Entry> terminals, List<Entry> top) {
+
+        static Node of(Map<Character, Node> children, List<Entry> terminals, int topK) {
+            List<Entry> candidates = new ArrayList<>(terminals);
+            for (Node child : children.values()) {
+                candidates.addAll(child.top);
+            }
+            candidates.sort(BY_WEIGHT);
+
+            // a product is indexed under every word of its name, keep it once
+            List<Entry> top = new ArrayList<>(topK);
+            Set<Long> seen = new HashSet<>();
+            for (Entry entry : candidates) {
+                if (top.size() == topK) {
+                    break;
+                }
+                if (seen.add(entry.id())) {
+                    top.add(entry);
+                }
+            }
+            return new Node(Map.copyOf(children), List.copyOf(terminals), List.copyOf(top));
+        }
+    }
+
+    private static final class Builder {
+
+        private final Map<Character, Builder> children = new HashMap<>();
+        private final List<Entry> terminals = new ArrayList<>();
+
+        Node freeze(int topK) {
+            Map<Character, Node> frozen = new HashMap<>();
+            children.forEach((c, child) -> frozen.put(c, child.freeze(topK)));
+            return Node.of(frozen, terminals, topK);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+-- Orders past the retention window, moved out of tb_order by OrderArchiveService.
+-- The order with its items and payment is kept as gzipped JSON; only the id is indexed.
+CREATE TABLE tb_order_archive (
+    id BIGINT NOT NULL,
+    client_id BIGINT NOT NULL,
+    moment TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    archived_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    payload BYTEA NOT NULL,
+    PRIMARY KEY (id)
+);
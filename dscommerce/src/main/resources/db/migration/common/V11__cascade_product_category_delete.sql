@@ -0,0 +1,5 @@
+-- A product's category links are deleted with it, so deleting a product is one
+-- DELETE on tb_product (stock rows already cascade, see V5)
+ALTER TABLE tb_product_category DROP CONSTRAINT fk_product_category_product;
+ALTER TABLE tb_product_category ADD CONSTRAINT fk_product_category_product
+    FOREIGN KEY (product_id) REFERENCES tb_product (id) ON DELETE CASCADE;
@@ -0,0 +1,2 @@
+-- Order history of a client continues into the archive, read the same way as idx_order_client_moment
+CREATE INDEX idx_order_archive_client_moment ON tb_order_archive (client_id, moment DESC, id DESC);
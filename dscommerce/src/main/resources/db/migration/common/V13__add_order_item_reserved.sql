@@ -0,0 +1,7 @@
+-- Units of an item taken from stock; only these go back when the order is canceled or edited
+ALTER TABLE tb_order_item ADD COLUMN reserved INTEGER NOT NULL DEFAULT 0;
+
+-- open orders of products tracked now had their whole quantity reserved at checkout
+UPDATE tb_order_item SET reserved = quantity
+WHERE EXISTS (SELECT 1 FROM tb_product_stock WHERE tb_product_stock.product_id = tb_order_item.product_id)
+AND EXISTS (SELECT 1 FROM tb_order WHERE tb_order.id = tb_order_item.order_id AND tb_order.status IN (0, 1));
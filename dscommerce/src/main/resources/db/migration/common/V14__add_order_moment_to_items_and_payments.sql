@@ -0,0 +1,15 @@
+-- Moment of the order kept on its items and payment, so they can reference tb_order by
+-- (id, moment), the primary key of the partitioned table on Postgres
+
+ALTER TABLE tb_order_item ADD COLUMN order_moment TIMESTAMP WITHOUT TIME ZONE;
+ALTER TABLE tb_payment ADD COLUMN order_moment TIMESTAMP WITHOUT TIME ZONE;
+
+-- left behind by orders deleted on Postgres while V10_1 had dropped the keys
+DELETE FROM tb_order_item WHERE NOT EXISTS (SELECT 1 FROM tb_order WHERE tb_order.id = tb_order_item.order_id);
+DELETE FROM tb_payment WHERE NOT EXISTS (SELECT 1 FROM tb_order WHERE tb_order.id = tb_payment.order_id);
+
+UPDATE tb_order_item SET order_moment = (SELECT moment FROM tb_order WHERE tb_order.id = tb_order_item.order_id);
+UPDATE tb_payment SET order_moment = (SELECT moment FROM tb_order WHERE tb_order.id = tb_payment.order_id);
+
+ALTER TABLE tb_order_item ALTER COLUMN order_moment SET NOT NULL;
+ALTER TABLE tb_payment ALTER COLUMN order_moment SET NOT NULL;
@@ -0,0 +1,76 @@
+-- Initial schema, matching what Hibernate generated before migrations owned it.
+-- Databases created that way are baselined at this version and skip this script.
+
+CREATE TABLE tb_category (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE tb_product (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255),
+    description TEXT,
+    price FLOAT(53),
+    img_url VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE tb_product_category (
+    category_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    PRIMARY KEY (category_id, product_id)
+);
+
+CREATE TABLE tb_role (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    authority VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE tb_user (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255),
+    email VARCHAR(255) UNIQUE,
+    phone VARCHAR(255),
+    birth_date DATE,
+    password VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE tb_user_role (
+    role_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    PRIMARY KEY (role_id, user_id)
+);
+
+CREATE TABLE tb_order (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    moment TIMESTAMP WITHOUT TIME ZONE,
+    status SMALLINT CHECK (status BETWEEN 0 AND 4),
+    client_id BIGINT,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE tb_order_item (
+    order_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity INTEGER,
+    price FLOAT(53),
+    PRIMARY KEY (order_id, product_id)
+);
+
+CREATE TABLE tb_payment (
+    order_id BIGINT NOT NULL,
+    moment TIMESTAMP WITHOUT TIME ZONE,
+    PRIMARY KEY (order_id)
+);
+
+ALTER TABLE tb_product_category ADD CONSTRAINT fk_product_category_category FOREIGN KEY (category_id) REFERENCES tb_category (id);
+ALTER TABLE tb_product_category ADD CONSTRAINT fk_product_category_product FOREIGN KEY (product_id) REFERENCES tb_product (id);
+ALTER TABLE tb_user_role ADD CONSTRAINT fk_user_role_role FOREIGN KEY (role_id) REFERENCES tb_role (id);
+ALTER TABLE tb_user_role ADD CONSTRAINT fk_user_role_user FOREIGN KEY (user_id) REFERENCES tb_user (id);
+ALTER TABLE tb_order ADD CONSTRAINT fk_order_client FOREIGN KEY (client_id) REFERENCES tb_user (id);
+ALTER TABLE tb_order_item ADD CONSTRAINT fk_order_item_order FOREIGN KEY (order_id) REFERENCES tb_order (id);
+ALTER TABLE tb_order_item ADD CONSTRAINT fk_order_item_product FOREIGN KEY (product_id) REFERENCES tb_product (id);
+ALTER TABLE tb_payment ADD CONSTRAINT fk_payment_order FOREIGN KEY (order_id) REFERENCES tb_order (id);
@@ -0,0 +1,3 @@
+-- Lowercased, accent-free copy of tb_product.name.
+-- Filled by ProductService on write and by its startup backfill for existing rows.
+ALTER TABLE tb_product ADD COLUMN name_normalized VARCHAR(255);
@@ -0,0 +1,14 @@
+-- Indexes for the foreign keys and filters used by the order, product and category queries.
+-- Composite primary keys already cover their leading column:
+--   tb_order_item (order_id, ...), tb_product_category (category_id, ...), tb_user_role (role_id, ...)
+
+CREATE INDEX idx_order_client ON tb_order (client_id);
+CREATE INDEX idx_order_status_moment ON tb_order (status, moment);
+CREATE INDEX idx_order_moment ON tb_order (moment);
+
+CREATE INDEX idx_order_item_product ON tb_order_item (product_id);
+
+CREATE INDEX idx_product_category_product ON tb_product_category (product_id);
+CREATE INDEX idx_user_role_user ON tb_user_role (user_id);
+
+CREATE INDEX idx_product_name ON tb_product (name);
@@ -0,0 +1,11 @@
+-- Results of POST /orders calls made with an Idempotency-Key header.
+-- id is "<client id>:<key>", the row is written in the same transaction as the order.
+CREATE TABLE tb_idempotency_key (
+    id VARCHAR(150) NOT NULL,
+    order_id BIGINT NOT NULL,
+    fingerprint VARCHAR(64) NOT NULL,
+    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_idempotency_key_created_at ON tb_idempotency_key (created_at);
@@ -0,0 +1,11 @@
+-- Stock of a product split across shard rows, so concurrent checkouts of the
+-- same product lock different rows. Products without rows are not stock-tracked.
+CREATE TABLE tb_product_stock (
+    product_id BIGINT NOT NULL,
+    shard INTEGER NOT NULL,
+    quantity INTEGER NOT NULL CHECK (quantity >= 0),
+    PRIMARY KEY (product_id, shard)
+);
+
+ALTER TABLE tb_product_stock ADD CONSTRAINT fk_product_stock_product
+    FOREIGN KEY (product_id) REFERENCES tb_product (id) ON DELETE CASCADE;
@@ -0,0 +1,12 @@
+-- Order events waiting to be relayed to downstream systems. Rows are written in
+-- the same transaction as the order change and deleted once delivered.
+CREATE TABLE tb_outbox_event (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_outbox_event_aggregate ON tb_outbox_event (aggregate_id, id);
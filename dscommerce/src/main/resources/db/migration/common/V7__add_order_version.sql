@@ -0,0 +1,2 @@
+-- Optimistic locking for order edits
+ALTER TABLE tb_order ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
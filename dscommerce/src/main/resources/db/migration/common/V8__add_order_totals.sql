@@ -0,0 +1,9 @@
+-- Money as exact decimals instead of floating point
+ALTER TABLE tb_product ALTER COLUMN price SET DATA TYPE NUMERIC(12, 2);
+ALTER TABLE tb_order_item ALTER COLUMN price SET DATA TYPE NUMERIC(12, 2);
+
+-- Order summary kept with the order, NULL until OrderService backfills it
+ALTER TABLE tb_order ADD COLUMN total NUMERIC(14, 2);
+ALTER TABLE tb_order ADD COLUMN item_count INTEGER;
+
+CREATE INDEX idx_order_total ON tb_order (total);
@@ -0,0 +1,2 @@
+-- Order history of a client, newest first, read as one range of this index
+CREATE INDEX idx_order_client_moment ON tb_order (client_id, moment DESC, id DESC);
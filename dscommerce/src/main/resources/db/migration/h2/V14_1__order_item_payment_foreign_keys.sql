@@ -0,0 +1,9 @@
+-- Same keys as on Postgres, so a moment that does not match its order fails here too
+ALTER TABLE tb_order ADD CONSTRAINT uk_order_id_moment UNIQUE (id, moment);
+
+ALTER TABLE tb_order_item DROP CONSTRAINT fk_order_item_order;
+ALTER TABLE tb_order_item ADD CONSTRAINT fk_order_item_order
+    FOREIGN KEY (order_id, order_moment) REFERENCES tb_order (id, moment);
+ALTER TABLE tb_payment DROP CONSTRAINT fk_payment_order;
+ALTER TABLE tb_payment ADD CONSTRAINT fk_payment_order
+    FOREIGN KEY (order_id, order_moment) REFERENCES tb_order (id, moment);
@@ -0,0 +1,55 @@
+-- tb_order partitioned by month of moment. Old months are archived and dropped without
+-- touching the current ones, and every index is split per month.
+--
+-- Postgres needs the partition key in every unique key, so the primary key becomes
+-- (id, moment) and the foreign keys from tb_order_item and tb_payment, which can only
+-- reference a unique key, are dropped. ids stay unique through the sequence.
+-- Orders of a month without a partition land in tb_order_default; OrderPartitionService
+-- creates the coming months ahead of time.
+
+ALTER TABLE tb_order_item DROP CONSTRAINT fk_order_item_order;
+ALTER TABLE tb_payment DROP CONSTRAINT fk_payment_order;
+
+ALTER TABLE tb_order RENAME TO tb_order_unpartitioned;
+
+CREATE TABLE tb_order (
+    id BIGINT NOT NULL,
+    moment TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    status SMALLINT CHECK (status BETWEEN 0 AND 4),
+    client_id BIGINT,
+    version BIGINT NOT NULL DEFAULT 0,
+    total NUMERIC(14, 2),
+    item_count INTEGER
+) PARTITION BY RANGE (moment);
+
+DO $$
+DECLARE
+    month_start TIMESTAMP := date_trunc('month', COALESCE(
+        (SELECT MIN(moment) FROM tb_order_unpartitioned), now() AT TIME ZONE 'UTC'));
+BEGIN
+    WHILE month_start <= date_trunc('month', now() AT TIME ZONE 'UTC') + INTERVAL '3 months' LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF tb_order FOR VALUES FROM (%L) TO (%L)',
+            'tb_order_p' || to_char(month_start, 'YYYY_MM'), month_start, month_start + INTERVAL '1 month');
+        month_start := month_start + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+CREATE TABLE tb_order_default PARTITION OF tb_order DEFAULT;
+
+INSERT INTO tb_order (id, moment, status, client_id, version, total, item_count)
+SELECT id, moment, status, client_id, version, total, item_count FROM tb_order_unpartitioned;
+
+DROP TABLE tb_order_unpartitioned;
+
+CREATE SEQUENCE tb_order_id_seq OWNED BY tb_order.id;
+SELECT setval('tb_order_id_seq', COALESCE((SELECT MAX(id) FROM tb_order), 0) + 1, false);
+ALTER TABLE tb_order ALTER COLUMN id SET DEFAULT nextval('tb_order_id_seq');
+
+ALTER TABLE tb_order ADD PRIMARY KEY (id, moment);
+ALTER TABLE tb_order ADD CONSTRAINT fk_order_client FOREIGN KEY (client_id) REFERENCES tb_user (id);
+
+-- idx_order_client and idx_order_moment are not recreated, the client history index and
+-- partition pruning cover their queries
+CREATE INDEX idx_order_status_moment ON tb_order (status, moment);
+CREATE INDEX idx_order_total ON tb_order (total);
+CREATE INDEX idx_order_client_moment ON tb_order (client_id, moment DESC, id DESC);
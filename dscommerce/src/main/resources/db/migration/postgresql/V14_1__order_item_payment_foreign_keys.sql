@@ -0,0 +1,8 @@
+-- The foreign keys V10_1 had to drop, now on the full key of the partitioned tb_order.
+-- A partition still referenced by items or payments cannot be detached or dropped.
+ALTER TABLE tb_order_item ADD CONSTRAINT fk_order_item_order
+    FOREIGN KEY (order_id, order_moment) REFERENCES tb_order (id, moment);
+ALTER TABLE tb_payment ADD CONSTRAINT fk_payment_order
+    FOREIGN KEY (order_id, order_moment) REFERENCES tb_order (id, moment);
+
+CREATE INDEX idx_order_item_order_moment ON tb_order_item (order_id, order_moment);
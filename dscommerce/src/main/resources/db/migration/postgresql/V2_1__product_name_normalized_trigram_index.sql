@@ -0,0 +1,5 @@
+-- Trigram index so LIKE '%term%' on the normalized name can use an index scan
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_product_name_normalized_trgm
+    ON tb_product USING gin (name_normalized gin_trgm_ops);
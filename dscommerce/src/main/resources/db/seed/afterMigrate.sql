@@ -1,3 +1,5 @@
+-- Sample data for the dev and test profiles. Runs after every migrate, which starts from a clean schema there.
+
 INSERT INTO tb_category(name) VALUES ('Livros');
 INSERT INTO tb_category(name) VALUES ('Eletrônicos');
 INSERT INTO tb_category(name) VALUES ('Computadores');
@@ -69,10 +71,10 @@ INSERT INTO tb_order (moment, status, client_id) VALUES (TIMESTAMP WITH TIME ZON
 INSERT INTO tb_order (moment, status, client_id) VALUES (TIMESTAMP WITH TIME ZONE '2022-07-29T15:50:00Z', 3, 2);
 INSERT INTO tb_order (moment, status, client_id) VALUES (TIMESTAMP WITH TIME ZONE '2022-08-03T14:20:00Z', 0, 1);
 
-INSERT INTO tb_order_item (order_id, product_id, quantity, price) VALUES (1, 1, 2, 90.5);
-INSERT INTO tb_order_item (order_id, product_id, quantity, price) VALUES (1, 3, 1, 1250.0);
-INSERT INTO tb_order_item (order_id, product_id, quantity, price) VALUES (2, 3, 1, 1250.0);
-INSERT INTO tb_order_item (order_id, product_id, quantity, price) VALUES (3, 1, 1, 90.5);
+INSERT INTO tb_order_item (order_id, order_moment, product_id, quantity, price) VALUES (1, TIMESTAMP WITH TIME ZONE '2022-07-25T13:00:00Z', 1, 2, 90.5);
+INSERT INTO tb_order_item (order_id, order_moment, product_id, quantity, price) VALUES (1, TIMESTAMP WITH TIME ZONE '2022-07-25T13:00:00Z', 3, 1, 1250.0);
+INSERT INTO tb_order_item (order_id, order_moment, product_id, quantity, price) VALUES (2, TIMESTAMP WITH TIME ZONE '2022-07-29T15:50:00Z', 3, 1, 1250.0);
+INSERT INTO tb_order_item (order_id, order_moment, product_id, quantity, price) VALUES (3, TIMESTAMP WITH TIME ZONE '2022-08-03T14:20:00Z', 1, 1, 90.5);
 
-INSERT INTO tb_payment (order_id, moment) VALUES (1, TIMESTAMP WITH TIME ZONE '2022-07-25T15:00:00Z');
-INSERT INTO tb_payment (order_id, moment) VALUES (2, TIMESTAMP WITH TIME ZONE '2022-07-30T11:00:00Z');
\ No newline at end of file
+INSERT INTO tb_payment (order_id, order_moment, moment) VALUES (1, TIMESTAMP WITH TIME ZONE '2022-07-25T13:00:00Z', TIMESTAMP WITH TIME ZONE '2022-07-25T15:00:00Z');
+INSERT INTO tb_payment (order_id, order_moment, moment) VALUES (2, TIMESTAMP WITH TIME ZONE '2022-07-29T15:50:00Z', TIMESTAMP WITH TIME ZONE '2022-07-30T11:00:00Z');
\ No newline at end of file
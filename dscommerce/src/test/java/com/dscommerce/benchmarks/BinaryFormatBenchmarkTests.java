@@ -0,0 +1,106 @@
+package com.dscommerce.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import com.dscommerce.dto.OrderDTO;
+import com.dscommerce.dto.ProductMinDTO;
+import com.dscommerce.services.OrderService;
+import com.dscommerce.services.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Payload size and encode/decode time of the product listing and of an order,
+ * as JSON, CBOR and Smile, with the mappers the message converters use.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class BinaryFormatBenchmarkTests {
+
+	private static final int WARMUP = 20_000;
+	private static final int ITERATIONS = 50_000;
+
+	@Autowired
+	private MappingJackson2HttpMessageConverter jsonConverter;
+
+	@Autowired
+	private MappingJackson2CborHttpMessageConverter cborConverter;
+
+	@Autowired
+	private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private OrderService orderService;
+
+	// what a caller reads back from a product page
+	record ProductPage(List<ProductMinDTO> content, long totalElements) {
+	}
+
+	@Test
+	void productPage() throws Exception {
+		Object page = productService.findAll("", null, null, null, PageRequest.of(0, 24));
+		compare("product page", page, ProductPage.class);
+	}
+
+	@Test
+	void order() throws Exception {
+		Jwt jwt = Jwt.withTokenValue("benchmark").header("alg", "none").claim("username", "maria@gmail.com").build();
+		SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+		try {
+			compare("order", orderService.findById(1L), OrderDTO.class);
+		} finally {
+			SecurityContextHolder.clearContext();
+		}
+	}
+
+	private void compare(String label, Object value, Class<?> type) throws Exception {
+		ObjectMapper json = jsonConverter.getObjectMapper();
+		// every format must decode to what JSON decodes to
+		String expected = json.writeValueAsString(json.readValue(json.writeValueAsBytes(value), type));
+		for (ObjectMapper mapper : List.of(json, cborConverter.getObjectMapper(), smileConverter.getObjectMapper())) {
+			byte[] bytes = mapper.writeValueAsBytes(value);
+			assertEquals(expected, json.writeValueAsString(mapper.readValue(bytes, type)));
+			run(label, mapper.getFactory().getFormatName(), mapper, value, bytes, type);
+		}
+	}
+
+	private static void run(String label, String format, ObjectMapper mapper, Object value, byte[] bytes,
+			Class<?> type) throws Exception {
+		long sink = 0;
+		for (int i = 0; i < WARMUP; i++) {
+			sink += mapper.writeValueAsBytes(value).length;
+			sink += mapper.readValue(bytes, type).hashCode();
+		}
+
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			sink += mapper.writeValueAsBytes(value).length;
+		}
+		double encode = (System.nanoTime() - start) / 1e3 / ITERATIONS;
+		start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			sink += mapper.readValue(bytes, type).hashCode();
+		}
+		double decode = (System.nanoTime() - start) / 1e3 / ITERATIONS;
+
+		System.out.printf("%-13s %-6s %,7d bytes, encode %6.2f us, decode %6.2f us (%d)%n",
+				label, format, bytes.length, encode, decode, sink & 1);
+	}
+}
@@ -0,0 +1,68 @@
+package com.dscommerce.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Bytes allocated and time per request on the error paths that bots and
+ * stale links hit: unknown product, category and order ids (404) and someone
+ * else's order (403). Requests run on the calling thread through MockMvc, with
+ * the security filters, so every allocation of the request is counted. A
+ * found product is measured first as the baseline.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.h2.console.enabled=true")
+@AutoConfigureMockMvc
+class ErrorPathBenchmarkTests {
+
+	private static final int WARMUP = 5_000;
+	private static final int REQUESTS = 20_000;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void errorResponses() throws Exception {
+		// a found product, for comparison
+		run("GET /products/{id}", get("/products/1"), 200);
+		run("GET /products/{missing}", get("/products/999999"), 404);
+		run("GET /categories/{missing}", get("/categories/999999"), 404);
+		run("GET /orders/{missing}", get("/orders/999999").with(as("alex@gmail.com", "ROLE_ADMIN")), 404);
+		run("GET /orders/{other client}", get("/orders/2").with(as("maria@gmail.com", "ROLE_CLIENT")), 403);
+	}
+
+	private void run(String label, MockHttpServletRequestBuilder request, int status) throws Exception {
+		ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		for (int i = 0; i < WARMUP; i++) {
+			assertEquals(status, mockMvc.perform(request).andReturn().getResponse().getStatus());
+		}
+		long bytes = threads.getCurrentThreadAllocatedBytes();
+		long start = System.nanoTime();
+		for (int i = 0; i < REQUESTS; i++) {
+			mockMvc.perform(request);
+		}
+		double micros = (System.nanoTime() - start) / 1e3 / REQUESTS;
+		long perRequest = (threads.getCurrentThreadAllocatedBytes() - bytes) / REQUESTS;
+		System.out.printf("%-26s %,8d bytes/request, %7.1f us/request%n", label, perRequest, micros);
+	}
+
+	private static RequestPostProcessor as(String email, String role) {
+		return jwt().jwt(token -> token.claim("username", email)).authorities(new SimpleGrantedAuthority(role));
+	}
+}
@@ -0,0 +1,95 @@
+package com.dscommerce.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.dscommerce.dto.OrderDTO;
+import com.dscommerce.dto.OrderItemDTO;
+import com.dscommerce.services.OrderCheckoutService;
+import com.dscommerce.services.StockService;
+
+/**
+ * Checkout throughput and latency through {@link OrderCheckoutService}, once
+ * with a transaction per order and once with group commit. Every order has two
+ * stock-tracked items. Run with {@code mvn test -Pbenchmark}, on Postgres with
+ * {@code -Dtest.profile=dev} to include the commit fsync.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "checkout.group-commit.enabled=true")
+class GroupCommitBenchmarkTests {
+
+	private static final List<Long> PRODUCT_IDS = List.of(1L, 2L);
+	private static final int THREADS = 32;
+	private static final int ORDERS = 5_000;
+
+	@Autowired
+	private OrderCheckoutService orderCheckoutService;
+
+	@Autowired
+	private StockService stockService;
+
+	@Test
+	void checkoutWithAndWithoutGroupCommit() throws Exception {
+		run("per order", false);
+		run("batched", true);
+	}
+
+	private void run(String label, boolean groupCommit) throws Exception {
+		ReflectionTestUtils.setField(orderCheckoutService, "enabled", groupCommit);
+		for (Long productId : PRODUCT_IDS) {
+			stockService.setStock(productId, ORDERS);
+		}
+		Jwt jwt = Jwt.withTokenValue("benchmark").header("alg", "none").claim("username", "maria@gmail.com").build();
+		long[] latencies = new long[ORDERS];
+		AtomicInteger next = new AtomicInteger();
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		long start = System.nanoTime();
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			futures.add(executor.submit(() -> {
+				SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+				for (int n = next.getAndIncrement(); n < ORDERS; n = next.getAndIncrement()) {
+					OrderDTO dto = new OrderDTO();
+					for (Long productId : PRODUCT_IDS) {
+						dto.getItems().add(new OrderItemDTO(productId, null, BigDecimal.ZERO, 1, null));
+					}
+					long begin = System.nanoTime();
+					orderCheckoutService.insert(dto);
+					latencies[n] = System.nanoTime() - begin;
+				}
+				SecurityContextHolder.clearContext();
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		executor.shutdown();
+
+		Arrays.sort(latencies);
+		System.out.printf("%-10s %,8.0f orders/s, p50 %6.2f ms, p99 %6.2f ms (%d orders, %d threads)%n",
+				label, ORDERS / seconds, latencies[ORDERS / 2] / 1e6, latencies[ORDERS * 99 / 100] / 1e6,
+				ORDERS, THREADS);
+		for (Long productId : PRODUCT_IDS) {
+			assertEquals(0, stockService.findStock(List.of(productId)).get(productId));
+		}
+	}
+}
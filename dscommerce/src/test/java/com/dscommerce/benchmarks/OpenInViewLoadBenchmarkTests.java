@@ -0,0 +1,198 @@
+package com.dscommerce.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * The same read traffic against a running server with a small connection
+ * pool, once with open-in-view and once without, from clients on a slow link
+ * (writing each response body takes {@value #WRITE_DELAY_MILLIS} ms). With
+ * open-in-view every request keeps its connection until the response is
+ * written, so requests queue for connections sooner. Prints requests/s, p99
+ * latency and the most threads seen waiting for a connection.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.hikari.maximum-pool-size=4",
+		"spring.h2.console.enabled=true",
+		"catalog-cache.enabled=false" })
+@Import(OpenInViewLoadBenchmarkTests.SlowClientConfig.class)
+class OpenInViewLoadBenchmarkTests {
+
+	private static final int THREADS = 64;
+	private static final int REQUESTS = 5_000;
+	private static final long WRITE_DELAY_MILLIS = 20;
+	private static final List<String> PATHS = List.of("/orders/1", "/products/1", "/products?size=24", "/users/me",
+			"/orders/2", "/products/3", "/categories");
+
+	@Nested
+	@TestPropertySource(properties = "spring.jpa.open-in-view=true")
+	class WithOpenInView {
+
+		@LocalServerPort
+		private int port;
+
+		@Autowired
+		private DataSource dataSource;
+
+		@Value("${security.client-id}")
+		private String clientId;
+
+		@Value("${security.client-secret}")
+		private String clientSecret;
+
+		@Test
+		void load() throws Exception {
+			run("open-in-view", port, dataSource, clientId, clientSecret);
+		}
+	}
+
+	@Nested
+	@TestPropertySource(properties = "spring.jpa.open-in-view=false")
+	class WithoutOpenInView {
+
+		@LocalServerPort
+		private int port;
+
+		@Autowired
+		private DataSource dataSource;
+
+		@Value("${security.client-id}")
+		private String clientId;
+
+		@Value("${security.client-secret}")
+		private String clientSecret;
+
+		@Test
+		void load() throws Exception {
+			run("read models", port, dataSource, clientId, clientSecret);
+		}
+	}
+
+	@TestConfiguration
+	static class SlowClientConfig {
+
+		@Bean
+		Filter slowClientFilter() {
+			return (request, response, chain) -> chain.doFilter(request,
+					new HttpServletResponseWrapper((HttpServletResponse) response) {
+
+						private boolean delayed;
+
+						@Override
+						public ServletOutputStream getOutputStream() throws IOException {
+							if (!delayed) {
+								delayed = true;
+								try {
+									Thread.sleep(WRITE_DELAY_MILLIS);
+								} catch (InterruptedException e) {
+									Thread.currentThread().interrupt();
+								}
+							}
+							return super.getOutputStream();
+						}
+					});
+		}
+	}
+
+	private static void run(String label, int port, DataSource dataSource, String clientId, String clientSecret)
+			throws Exception {
+		HttpClient http = HttpClient.newBuilder().executor(Executors.newFixedThreadPool(THREADS)).build();
+		String token = token(http, port, clientId, clientSecret);
+		HikariPoolMXBean pool = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+		for (int i = 0; i < 500; i++) {
+			send(http, port, token, PATHS.get(i % PATHS.size()));
+		}
+
+		long[] latencies = new long[REQUESTS];
+		AtomicInteger next = new AtomicInteger();
+		AtomicInteger maxWaiting = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+		Future<?> sampler = executor.submit(() -> {
+			while (!Thread.currentThread().isInterrupted()) {
+				maxWaiting.accumulateAndGet(pool.getThreadsAwaitingConnection(), Math::max);
+				Thread.onSpinWait();
+			}
+		});
+		long start = System.nanoTime();
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			futures.add(executor.submit(() -> {
+				for (int n = next.getAndIncrement(); n < REQUESTS; n = next.getAndIncrement()) {
+					long begin = System.nanoTime();
+					assertEquals(200, send(http, port, token, PATHS.get(n % PATHS.size())));
+					latencies[n] = System.nanoTime() - begin;
+				}
+				return null;
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		sampler.cancel(true);
+		executor.shutdownNow();
+
+		Arrays.sort(latencies);
+		System.out.printf("%-13s %,8.0f requests/s, p99 %6.2f ms, up to %d threads waiting for one of %d connections%n",
+				label, REQUESTS / seconds, latencies[REQUESTS * 99 / 100] / 1e6, maxWaiting.get(),
+				pool.getTotalConnections());
+	}
+
+	private static int send(HttpClient http, int port, String token, String path) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.header("Authorization", "Bearer " + token)
+				.build();
+		return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+	}
+
+	private static String token(HttpClient http, int port, String clientId, String clientSecret) throws Exception {
+		String credentials = Base64.getEncoder()
+				.encodeToString((clientId + ":" + clientSecret).getBytes(StandardCharsets.UTF_8));
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/oauth2/token"))
+				.header("Authorization", "Basic " + credentials)
+				.header("Content-Type", "application/x-www-form-urlencoded")
+				.POST(HttpRequest.BodyPublishers.ofString("grant_type=password&username=alex@gmail.com&password=123456"))
+				.build();
+		String body = http.send(request, HttpResponse.BodyHandlers.ofString()).body();
+		return new ObjectMapper().readTree(body).get("access_token").asText();
+	}
+}
@@ -0,0 +1,95 @@
+package com.dscommerce.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.dscommerce.entities.OutboxEvent;
+import com.dscommerce.events.InMemoryOutboxSink;
+import com.dscommerce.services.OutboxService;
+
+/**
+ * Outbox relay throughput with several relays polling the same table at once,
+ * checking that the events of each order still come out in the order they were
+ * written. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "outbox.relay.enabled=false")
+class OutboxRelayBenchmarkTests {
+
+	private static final int ORDERS = 500;
+	private static final int EVENTS_PER_ORDER = 10;
+	private static final int RELAYS = 4;
+	private static final int BATCH_SIZE = 200;
+
+	@Autowired
+	private OutboxService outboxService;
+
+	@Autowired
+	private InMemoryOutboxSink sink;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void relayThroughput() throws Exception {
+		jdbcTemplate.update("DELETE FROM tb_outbox_event");
+		sink.clear();
+		List<Object[]> rows = new ArrayList<>();
+		Timestamp now = Timestamp.from(Instant.now());
+		for (int seq = 0; seq < EVENTS_PER_ORDER; seq++) {
+			for (long order = 1; order <= ORDERS; order++) {
+				rows.add(new Object[] {order, "ORDER_STATUS_CHANGED", "{\"seq\":" + seq + "}", now});
+			}
+		}
+		jdbcTemplate.batchUpdate(
+				"INSERT INTO tb_outbox_event (aggregate_id, event_type, payload, created_at) VALUES (?, ?, ?, ?)", rows);
+
+		ExecutorService executor = Executors.newFixedThreadPool(RELAYS);
+		long start = System.nanoTime();
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < RELAYS; i++) {
+			futures.add(executor.submit(() -> {
+				while (count() > 0) {
+					outboxService.relayBatch(BATCH_SIZE);
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		executor.shutdown();
+
+		int total = ORDERS * EVENTS_PER_ORDER;
+		System.out.printf("outbox relay %,8.0f events/s (%d events, %d relays, batch %d, %.2f s)%n",
+				total / seconds, total, RELAYS, BATCH_SIZE, seconds);
+
+		List<OutboxEvent> delivered = sink.getEvents();
+		assertEquals(total, delivered.size());
+		Map<Long, Long> lastIdByOrder = new HashMap<>();
+		for (OutboxEvent event : delivered) {
+			Long previous = lastIdByOrder.put(event.getAggregateId(), event.getId());
+			assertTrue(previous == null || previous < event.getId(), "events of order " + event.getAggregateId() + " out of order");
+		}
+	}
+
+	private int count() {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_outbox_event", Integer.class);
+	}
+}
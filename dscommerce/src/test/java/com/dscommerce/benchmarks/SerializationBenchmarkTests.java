@@ -0,0 +1,106 @@
+package com.dscommerce.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import com.dscommerce.config.MessageConverterConfig;
+import com.dscommerce.dto.CategoryDTO;
+import com.dscommerce.services.CategoryService;
+import com.dscommerce.services.OrderService;
+import com.dscommerce.services.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * JSON serialization time of the catalog and order DTOs with Jackson's
+ * reflective property access and with the generated accessors of
+ * {@link BlackbirdModule}, which the application registers. Each case is
+ * measured in rounds after a warmup, and the best round is reported.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class SerializationBenchmarkTests {
+
+	private static final int WARMUP = 50_000;
+	private static final int ROUNDS = 5;
+	private static final int ITERATIONS = 50_000;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MessageConverterConfig messageConverterConfig;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private CategoryService categoryService;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Test
+	void reflectionAndGeneratedAccessors() throws Exception {
+		ObjectMapper reflective = Jackson2ObjectMapperBuilder.json()
+				.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+				.filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()))
+				.build();
+		ObjectMapper generated = reflective.copy().registerModule(messageConverterConfig.blackbirdModule());
+
+		Jwt jwt = Jwt.withTokenValue("benchmark").header("alg", "none").claim("username", "maria@gmail.com").build();
+		SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+		try {
+			compare("product page", productService.findAll("", null, null, null, PageRequest.of(0, 24)),
+					reflective, generated);
+			compare("product", productService.findById(1L), reflective, generated);
+			compare("category", new CategoryDTO(1L, "Livros"), reflective, generated);
+			compare("categories", categoryService.findAll(), reflective, generated);
+			compare("order", orderService.findById(1L), reflective, generated);
+		} finally {
+			SecurityContextHolder.clearContext();
+		}
+	}
+
+	private void compare(String label, Object value, ObjectMapper reflective, ObjectMapper generated)
+			throws Exception {
+		// same bytes either way, and the same as the application writes
+		assertEquals(objectMapper.writeValueAsString(value), reflective.writeValueAsString(value));
+		assertEquals(objectMapper.writeValueAsString(value), generated.writeValueAsString(value));
+		double reflection = measure(reflective, value);
+		double accessors = measure(generated, value);
+		System.out.printf("%-13s reflection %6.2f us, generated accessors %6.2f us (%+.0f%%)%n",
+				label, reflection, accessors, (accessors - reflection) / reflection * 100);
+	}
+
+	private static double measure(ObjectMapper mapper, Object value) throws Exception {
+		long sink = 0;
+		for (int i = 0; i < WARMUP; i++) {
+			sink += mapper.writeValueAsBytes(value).length;
+		}
+		double best = Double.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < ITERATIONS; i++) {
+				sink += mapper.writeValueAsBytes(value).length;
+			}
+			best = Math.min(best, (System.nanoTime() - start) / 1e3 / ITERATIONS);
+		}
+		assertTrue(sink > 0);
+		return best;
+	}
+}
@@ -0,0 +1,90 @@
+package com.dscommerce.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.dscommerce.entities.Order;
+import com.dscommerce.entities.User;
+import com.dscommerce.entities.enums.OrderStatus;
+import com.dscommerce.repositories.OrderRepository;
+import com.dscommerce.repositories.UserRepository;
+import com.dscommerce.services.StockService;
+
+/**
+ * Checkout throughput on a single hot product: every order reserves one unit
+ * and writes its order row in the same transaction, once with all the stock in
+ * a single row and once spread over the configured shards.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class StockReservationBenchmarkTests {
+
+	private static final long PRODUCT_ID = 1L;
+	private static final int THREADS = 32;
+	private static final int ORDERS = 5_000;
+
+	@Autowired
+	private StockService stockService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void hotProductCheckout() throws Exception {
+		int configured = (int) ReflectionTestUtils.getField(stockService, "shards");
+		run("single row", 1);
+		run(configured + " shards", configured);
+		ReflectionTestUtils.setField(stockService, "shards", configured);
+	}
+
+	private void run(String label, int shards) throws Exception {
+		ReflectionTestUtils.setField(stockService, "shards", shards);
+		stockService.setStock(PRODUCT_ID, ORDERS);
+		User client = userRepository.findById(1L).orElseThrow();
+		AtomicInteger remaining = new AtomicInteger(ORDERS);
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		long start = System.nanoTime();
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			futures.add(executor.submit(() -> {
+				while (remaining.getAndDecrement() > 0) {
+					transactionTemplate.executeWithoutResult(status -> {
+						stockService.reserve(PRODUCT_ID, 1);
+						orderRepository.save(new Order(null, Instant.now(), OrderStatus.WAITING_PAYMENT, client, null));
+					});
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		executor.shutdown();
+
+		System.out.printf("%-10s %,8.0f orders/s (%d orders, %d threads, %.2f s)%n",
+				label, ORDERS / seconds, ORDERS, THREADS, seconds);
+		assertEquals(0, stockService.findStock(List.of(PRODUCT_ID)).get(PRODUCT_ID));
+	}
+}
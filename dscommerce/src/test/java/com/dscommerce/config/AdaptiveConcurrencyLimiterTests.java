@@ -0,0 +1,61 @@
+package com.dscommerce.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Steps the limiter through 100 ms windows on its own clock, ten requests a
+ * window, each group of requests in flight at the same time.
+ */
+class AdaptiveConcurrencyLimiterTests {
+
+	private final AtomicLong clock = new AtomicLong();
+	private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 20, 400, 2.0, clock::get);
+
+	// one window of cache hits then ordinary requests, never more than one at a time
+	@Test
+	void fastWindowShouldNotShrinkTheLimitOfAnIdleServer() {
+		window(0.1, 1);
+		for (int i = 0; i < 20; i++) {
+			window(2, 1);
+		}
+		assertEquals(50, limiter.getLimit());
+	}
+
+	@Test
+	void queueingAtTheLimitShouldShrinkIt() {
+		for (int i = 0; i < 20; i++) {
+			window(2, 1);
+		}
+		for (int i = 0; i < 20; i++) {
+			window(20, limiter.getLimit());
+		}
+		assertTrue(limiter.getLimit() < 30, "limit " + limiter.getLimit());
+	}
+
+	@Test
+	void reachingTheLimitWithoutSlowingDownShouldGrowIt() {
+		for (int i = 0; i < 20; i++) {
+			window(2, limiter.getLimit());
+		}
+		assertTrue(limiter.getLimit() > 50, "limit " + limiter.getLimit());
+	}
+
+	private void window(double latencyMillis, int concurrency) {
+		clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+		long latency = (long) (latencyMillis * 1_000_000);
+		for (int done = 0; done < 10; done += concurrency) {
+			for (int i = 0; i < concurrency; i++) {
+				assertTrue(limiter.tryAcquire());
+			}
+			for (int i = 0; i < concurrency; i++) {
+				limiter.release(latency);
+			}
+		}
+	}
+}
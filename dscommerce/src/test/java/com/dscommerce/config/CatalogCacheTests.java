@@ -0,0 +1,47 @@
+package com.dscommerce.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * A category renamed behind the cache's back, as by another instance, is
+ * served from the cache until the entry expires and fresh afterwards.
+ */
+// the H2 console security chain of the test profile needs the console configured
+@SpringBootTest(properties = {
+		"spring.h2.console.enabled=true",
+		"catalog-cache.ttl-ms=2000"
+})
+@AutoConfigureMockMvc
+class CatalogCacheTests {
+
+	private static final String RENAMED = "Renamed elsewhere";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void entriesShouldExpireAfterTheirTtl() throws Exception {
+		assertFalse(categories().contains(RENAMED));
+		jdbcTemplate.update("UPDATE tb_category SET name = ? WHERE id = 1", RENAMED);
+		assertFalse(categories().contains(RENAMED));
+
+		Thread.sleep(2100);
+		assertTrue(categories().contains(RENAMED));
+	}
+
+	private String categories() throws Exception {
+		return mockMvc.perform(get("/categories")).andReturn().getResponse().getContentAsString();
+	}
+}
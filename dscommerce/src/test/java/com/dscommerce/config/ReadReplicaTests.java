@@ -0,0 +1,145 @@
+package com.dscommerce.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.dscommerce.dto.OrderDTO;
+import com.dscommerce.dto.OrderItemDTO;
+import com.dscommerce.services.CatalogCacheService;
+import com.dscommerce.services.IdempotencyService;
+import com.dscommerce.services.ProductService;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Runs with a second H2 database as the replica, migrated and seeded like the
+ * primary before the context starts. One product has another name there, so a
+ * read shows which database answered; writes never reach it, like a replica
+ * lagging behind.
+ */
+// the H2 console security chain of the test profile needs the console configured
+@SpringBootTest(properties = {
+		"spring.h2.console.enabled=true",
+		"replica.enabled=true",
+		"replica.url=" + ReadReplicaTests.REPLICA_URL
+})
+@AutoConfigureMockMvc
+class ReadReplicaTests {
+
+	static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+	private static final String REPLICA_NAME = "Replica copy";
+
+	// the application reads the catalog while it starts, the replica needs its schema by then
+	static {
+		Flyway flyway = Flyway.configure()
+				.dataSource(REPLICA_URL, "sa", "")
+				.locations("classpath:db/migration/common", "classpath:db/seed")
+				.cleanDisabled(false)
+				.load();
+		flyway.clean();
+		flyway.migrate();
+	}
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private IdempotencyService idempotencyService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private HikariDataSource replicaDataSource;
+
+	@Autowired
+	private ReplicaFailoverDataSource readOnlyDataSource;
+
+	@Autowired
+	private CatalogCacheService catalogCacheService;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void renameProductOnReplica() throws SQLException {
+		try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+				Statement st = connection.createStatement()) {
+			st.executeUpdate("UPDATE tb_product SET name = '" + REPLICA_NAME + "' WHERE id = 1");
+		}
+	}
+
+	@AfterEach
+	void clearSecurityContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void readOnlyTransactionsShouldReadTheReplica() {
+		assertEquals(REPLICA_NAME, productService.findById(1L).getName());
+	}
+
+	// the entry was just dropped by a write the replica may not have, the page must not come from it
+	@Test
+	void catalogCacheMissesShouldBeRenderedOnThePrimary() throws Exception {
+		catalogCacheService.clear();
+
+		for (int i = 0; i < 2; i++) {
+			String page = mockMvc.perform(get("/products?size=100")).andReturn().getResponse().getContentAsString();
+			assertTrue(page.contains("The Lord of the Rings"), page);
+			assertFalse(page.contains(REPLICA_NAME), page);
+		}
+	}
+
+	@Test
+	void idempotentReplayShouldFindAnOrderTheReplicaHasNotSeen() {
+		Jwt jwt = Jwt.withTokenValue("test").header("alg", "none").claim("username", "maria@gmail.com").build();
+		SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+
+		OrderDTO first = idempotencyService.insertOrder(order(), "replica-lag");
+		OrderDTO replay = idempotencyService.insertOrder(order(), "replica-lag");
+
+		assertEquals(first.getId(), replay.getId());
+		assertEquals(1, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM tb_order WHERE id = ?", Integer.class, first.getId()));
+		assertEquals(0, new JdbcTemplate(replicaDataSource).queryForObject(
+				"SELECT COUNT(*) FROM tb_order WHERE id = ?", Integer.class, first.getId()));
+	}
+
+	// closing the pool cannot be undone
+	@Test
+	@DirtiesContext
+	void readsShouldFallBackToThePrimaryWhileTheReplicaIsDown() {
+		replicaDataSource.close();
+
+		assertEquals("The Lord of the Rings", productService.findById(1L).getName());
+		assertFalse(readOnlyDataSource.isReplicaUp());
+	}
+
+	private static OrderDTO order() {
+		OrderDTO dto = new OrderDTO();
+		dto.getItems().add(new OrderItemDTO(1L, null, null, 1, null));
+		return dto;
+	}
+}
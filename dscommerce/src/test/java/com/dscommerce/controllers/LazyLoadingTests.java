@@ -0,0 +1,107 @@
+package com.dscommerce.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import org.hibernate.LazyInitializationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Calls every endpoint with open-in-view off, as the application runs, and
+ * fails if any of them touches a lazy association outside its transaction,
+ * whether in the service or while the response is serialized.
+ */
+// the H2 console security chain of the test profile needs the console configured
+@SpringBootTest(properties = "spring.h2.console.enabled=true")
+@AutoConfigureMockMvc
+class LazyLoadingTests {
+
+	private static final String ADMIN = "alex@gmail.com";
+	private static final String CLIENT = "maria@gmail.com";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void readEndpointsShouldNotLoadLazily() throws Exception {
+		call(get("/products"), null);
+		call(get("/products").param("ids", "1", "2", "999"), null);
+		call(get("/products/suggest").param("q", "pc"), null);
+		call(get("/products/1"), null);
+		call(get("/products/1").param("fields", "name,categories"), null);
+		call(get("/categories"), null);
+		call(get("/categories/1"), null);
+		call(get("/orders"), ADMIN);
+		call(get("/orders/1"), ADMIN);
+		call(get("/orders/1"), CLIENT);
+		call(get("/orders/1").param("fields", "client,payment,items"), CLIENT);
+		call(get("/orders/stats"), ADMIN);
+		call(get("/users/me"), CLIENT);
+		call(get("/users/me/orders").param("size", "1"), CLIENT);
+		call(get("/analytics/sales/daily"), ADMIN);
+		call(get("/analytics/sales/top-products"), ADMIN);
+	}
+
+	@Test
+	void writeEndpointsShouldNotLoadLazily() throws Exception {
+		String items = "{\"items\":[{\"productId\":1,\"quantity\":1}]}";
+		Long id = idOf(call(post("/orders").contentType(MediaType.APPLICATION_JSON).content(items), CLIENT));
+		call(put("/orders/" + id).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"items\":[{\"productId\":1,\"quantity\":2},{\"productId\":2,\"quantity\":1}]}"), CLIENT);
+		call(post("/orders/" + id + "/pay"), CLIENT);
+		call(post("/orders/" + id + "/ship"), ADMIN);
+		call(post("/orders/" + id + "/deliver"), ADMIN);
+		call(get("/orders/" + id), CLIENT);
+
+		Long canceled = idOf(call(post("/orders").contentType(MediaType.APPLICATION_JSON).content(items), CLIENT));
+		call(post("/orders/" + canceled + "/cancel"), CLIENT);
+
+		String product = "{\"name\":\"Lazy Loading\",\"description\":\"Product created and updated by the lazy loading tests\","
+				+ "\"price\":10.0,\"imgUrl\":\"https://img.example.com/1.jpg\",\"categories\":[{\"id\":1}]}";
+		Long productId = idOf(call(post("/products").contentType(MediaType.APPLICATION_JSON).content(product), ADMIN));
+		call(put("/products/" + productId).contentType(MediaType.APPLICATION_JSON).content(product), ADMIN);
+
+		Long categoryId = idOf(call(post("/categories").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"name\":\"Lazy Loading\"}"), ADMIN));
+		call(put("/categories/" + categoryId).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"name\":\"Lazy Loading 2\"}"), ADMIN);
+	}
+
+	private MvcResult call(MockHttpServletRequestBuilder request, String email) throws Exception {
+		if (email != null) {
+			String role = email.equals(ADMIN) ? "ROLE_ADMIN" : "ROLE_CLIENT";
+			request.with(jwt().jwt(token -> token.claim("username", email)).authorities(new SimpleGrantedAuthority(role)));
+		}
+		MvcResult result = mockMvc.perform(request).andReturn();
+		String call = request.buildRequest(null).getMethod() + " " + request.buildRequest(null).getRequestURI();
+		for (Throwable e = result.getResolvedException(); e != null; e = e.getCause()) {
+			assertFalse(e instanceof LazyInitializationException, call + " loaded lazily: " + e.getMessage());
+		}
+		assertTrue(result.getResponse().getStatus() < 400,
+				call + " returned " + result.getResponse().getStatus() + ": " + result.getResponse().getContentAsString());
+		return result;
+	}
+
+	private Long idOf(MvcResult result) throws Exception {
+		JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
+		return body.get("id").asLong();
+	}
+}
@@ -0,0 +1,113 @@
+package com.dscommerce.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.dscommerce.services.OrderArchiveService;
+import com.dscommerce.services.SalesAnalyticsService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Archives the finished seed orders and reads them back through every view
+ * that covers archived orders: the order itself, the client's history and
+ * the sales analytics after a rebuild.
+ */
+// the H2 console security chain of the test profile needs the console configured
+@SpringBootTest(properties = "spring.h2.console.enabled=true")
+@AutoConfigureMockMvc
+// the archived orders leave tb_order for good
+@DirtiesContext
+class OrderArchiveTests {
+
+	private static final String ADMIN = "alex@gmail.com";
+	private static final String CLIENT = "maria@gmail.com";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private OrderArchiveService orderArchiveService;
+
+	@Autowired
+	private SalesAnalyticsService salesAnalyticsService;
+
+	@Test
+	void archivedOrdersShouldReadBackAsBefore() throws Exception {
+		// order 3 of maria is newer than her order 1, which stays in tb_order
+		jdbcTemplate.update("UPDATE tb_order SET status = 4 WHERE id = 3");
+		salesAnalyticsService.rebuild();
+		String sales = objectMapper.writeValueAsString(salesAnalyticsService.findByProduct());
+		JsonNode order = read(get("/orders/2"), ADMIN);
+
+		// only the seed orders are that old, other tests in this context finish orders of their own
+		assertEquals(2, orderArchiveService.archiveBatch(Instant.parse("2023-01-01T00:00:00Z"), 100));
+		assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_order WHERE id IN (2, 3)", Integer.class));
+
+		// gzipped JSON of the filtered OrderDTO, written in full
+		assertEquals(order, read(get("/orders/2"), ADMIN));
+
+		List<Long> history = history(1);
+		assertEquals(List.of(3L, 1L), history.subList(history.size() - 2, history.size()));
+		assertEquals(history.size(), Set.copyOf(history).size());
+
+		salesAnalyticsService.rebuild();
+		assertEquals(sales, objectMapper.writeValueAsString(salesAnalyticsService.findByProduct()));
+
+		// order 3 seen in tb_order and then in the archive, as when a batch commits between the two reads
+		jdbcTemplate.update("INSERT INTO tb_order (id, moment, status, client_id, version, total, item_count) "
+				+ "VALUES (3, ?, 4, 1, 0, 90.5, 1)", Timestamp.from(Instant.parse("2022-08-03T14:20:00Z")));
+		assertEquals(history, history(1));
+		assertEquals(history, history(2));
+	}
+
+	// with one order per page, every page boundary is a cursor across both tables
+	private List<Long> history(int size) throws Exception {
+		List<Long> history = new ArrayList<>();
+		String cursor = null;
+		do {
+			MockHttpServletRequestBuilder page = get("/users/me/orders").param("size", String.valueOf(size));
+			if (cursor != null) {
+				page.param("cursor", cursor);
+			}
+			JsonNode body = read(page, CLIENT);
+			body.get("content").forEach(summary -> history.add(summary.get("id").asLong()));
+			cursor = body.get("nextCursor").isNull() ? null : body.get("nextCursor").asText();
+		} while (cursor != null);
+		return history;
+	}
+
+	private JsonNode read(MockHttpServletRequestBuilder request, String email) throws Exception {
+		String role = email.equals(ADMIN) ? "ROLE_ADMIN" : "ROLE_CLIENT";
+		String body = mockMvc.perform(request
+						.with(jwt().jwt(token -> token.claim("username", email))
+								.authorities(new SimpleGrantedAuthority(role))))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+}
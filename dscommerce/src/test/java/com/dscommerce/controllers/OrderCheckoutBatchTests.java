@@ -0,0 +1,76 @@
+package com.dscommerce.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * With group commit on, one worker waits until a batch of four checkouts is
+ * complete, so the four concurrent POSTs below commit together. One of them
+ * cannot be created: that caller alone gets the error, the others their order.
+ */
+// the H2 console security chain of the test profile needs the console configured
+@SpringBootTest(properties = {
+		"spring.h2.console.enabled=true",
+		"checkout.group-commit.enabled=true",
+		"checkout.group-commit.workers=1",
+		"checkout.group-commit.max-batch-size=4",
+		"checkout.group-commit.max-wait-ms=2000"
+})
+@AutoConfigureMockMvc
+class OrderCheckoutBatchTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void failingCheckoutShouldOnlyFailItsOwnCaller() throws Exception {
+		int before = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_order", Integer.class);
+		// the stock reservation rejects a quantity of 0, inside the batch transaction
+		List<Integer> quantities = List.of(1, 0, 2, 3);
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(quantities.size());
+		try {
+			List<Future<Integer>> statuses = new ArrayList<>();
+			for (int quantity : quantities) {
+				statuses.add(executor.submit(() -> {
+					start.await();
+					return mockMvc.perform(post("/orders")
+							.contentType(MediaType.APPLICATION_JSON)
+							.content("{\"items\":[{\"productId\":1,\"quantity\":" + quantity + "}]}")
+							.with(jwt().jwt(token -> token.claim("username", "maria@gmail.com"))
+									.authorities(new SimpleGrantedAuthority("ROLE_CLIENT"))))
+							.andReturn().getResponse().getStatus();
+				}));
+			}
+			start.countDown();
+
+			assertEquals(201, statuses.get(0).get());
+			assertEquals(400, statuses.get(1).get());
+			assertEquals(201, statuses.get(2).get());
+			assertEquals(201, statuses.get(3).get());
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(before + 3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_order", Integer.class));
+	}
+}
@@ -0,0 +1,91 @@
+package com.dscommerce.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * Items and payments reference their order by (id, moment), on H2 as on the
+ * partitioned Postgres table, so an order with items cannot be deleted and no
+ * item or payment can point at a missing order.
+ */
+// the H2 console security chain of the test profile needs the console configured
+@SpringBootTest(properties = "spring.h2.console.enabled=true")
+@AutoConfigureMockMvc
+class OrderDeleteTests {
+
+	// paid, with items and a payment
+	private static final long ORDER_ID = 1L;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void orderWithItemsShouldBeKept() throws Exception {
+		admin(delete("/orders/{id}", ORDER_ID)).andExpect(status().isBadRequest());
+		assertEquals(1, count("SELECT COUNT(*) FROM tb_payment WHERE order_id = ?", ORDER_ID));
+
+		long empty = insertOrder();
+		admin(post("/orders/bulk-delete").contentType(MediaType.APPLICATION_JSON).content("[" + ORDER_ID + "," + empty + "]"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.deleted").value(1))
+				.andExpect(jsonPath("$.skipped").value(1));
+		assertEquals(0, count("SELECT COUNT(*) FROM tb_order WHERE id = ?", empty));
+		assertEquals(1, count("SELECT COUNT(*) FROM tb_order WHERE id = ?", ORDER_ID));
+	}
+
+	@Test
+	void itemsShouldReferenceAnExistingOrderAndMoment() {
+		long order = insertOrder();
+		Timestamp other = Timestamp.from(Instant.parse("2022-01-01T00:00:00Z"));
+		assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+				"INSERT INTO tb_order_item (order_id, order_moment, product_id, quantity, price) VALUES (?, ?, 1, 1, 90.5)",
+				order, other));
+		assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+				"INSERT INTO tb_payment (order_id, order_moment, moment) VALUES (?, ?, ?)", order, other, other));
+	}
+
+	private long insertOrder() {
+		KeyHolder keys = new GeneratedKeyHolder();
+		jdbcTemplate.update(connection -> {
+			var st = connection.prepareStatement(
+					"INSERT INTO tb_order (moment, status, client_id, version) VALUES (?, 0, 1, 0)", new String[] {"id"});
+			st.setTimestamp(1, Timestamp.from(Instant.parse("2022-08-10T10:00:00Z")));
+			return st;
+		}, keys);
+		return keys.getKey().longValue();
+	}
+
+	private int count(String sql, long id) {
+		return jdbcTemplate.queryForObject(sql, Integer.class, id);
+	}
+
+	private ResultActions admin(MockHttpServletRequestBuilder request) throws Exception {
+		return mockMvc.perform(request.with(jwt().jwt(token -> token.claim("username", "alex@gmail.com"))
+				.authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+	}
+}
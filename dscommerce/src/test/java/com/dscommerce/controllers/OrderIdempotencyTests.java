@@ -0,0 +1,176 @@
+package com.dscommerce.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.dscommerce.dto.OrderDTO;
+import com.dscommerce.dto.OrderItemDTO;
+import com.dscommerce.services.IdempotencyService;
+import com.dscommerce.services.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Retries of POST /orders with the same Idempotency-Key create one order,
+ * whether they arrive together on this instance or the key was committed by
+ * another instance this one has not heard of.
+ */
+// the H2 console security chain of the test profile needs the console configured
+@SpringBootTest(properties = "spring.h2.console.enabled=true")
+@AutoConfigureMockMvc
+class OrderIdempotencyTests {
+
+	private static final String CLIENT = "maria@gmail.com";
+	private static final String ITEMS = "{\"items\":[{\"productId\":1,\"quantity\":1}]}";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private IdempotencyService idempotencyService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	void clearSecurityContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void concurrentPostsWithTheSameKeyShouldCreateOneOrder() throws Exception {
+		int before = orderCount();
+		int threads = 8;
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Long>> futures = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					MvcResult result = mockMvc.perform(post("/orders")
+							.header("Idempotency-Key", "concurrent")
+							.contentType(MediaType.APPLICATION_JSON)
+							.content(ITEMS)
+							.with(jwt().jwt(token -> token.claim("username", CLIENT))
+									.authorities(new SimpleGrantedAuthority("ROLE_CLIENT"))))
+							.andReturn();
+					assertEquals(201, result.getResponse().getStatus(), result.getResponse().getContentAsString());
+					return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+				}));
+			}
+			start.countDown();
+			Long first = futures.get(0).get();
+			for (Future<Long> future : futures) {
+				assertEquals(first, future.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(before + 1, orderCount());
+	}
+
+	// as on an instance whose lookup missed the key the other instance just committed
+	@Test
+	void keyCommittedElsewhereShouldRollTheSecondOrderBack() {
+		authenticate();
+		String id = "1:elsewhere";
+
+		OrderDTO winner = orderService.insert(order(), id, "fingerprint");
+		int before = orderCount();
+
+		assertThrows(DataIntegrityViolationException.class, () -> orderService.insert(order(), id, "fingerprint"));
+		assertEquals(before, orderCount());
+		assertEquals(winner.getId(), jdbcTemplate.queryForObject(
+				"SELECT order_id FROM tb_idempotency_key WHERE id = ?", Long.class, id));
+	}
+
+	// the stored key is past its TTL, the scheduled eviction has not run yet
+	@Test
+	void expiredKeyShouldStartANewOrder() {
+		authenticate();
+		String id = "1:expired";
+		OrderDTO old = orderService.insert(order(), id, "fingerprint");
+		jdbcTemplate.update("UPDATE tb_idempotency_key SET created_at = ? WHERE id = ?",
+				Timestamp.from(Instant.now().minus(Duration.ofHours(25))), id);
+
+		OrderDTO order = idempotencyService.insertOrder(order(), "expired");
+
+		assertNotEquals(old.getId(), order.getId());
+		assertEquals(order.getId(), jdbcTemplate.queryForObject(
+				"SELECT order_id FROM tb_idempotency_key WHERE id = ?", Long.class, id));
+	}
+
+	@Test
+	void keysOverTheCapShouldBeReplayedFromTheTable() {
+		authenticate();
+		Map<?, ?> entries = (Map<?, ?>) ReflectionTestUtils.getField(idempotencyService, "entries");
+		Object maxEntries = ReflectionTestUtils.getField(idempotencyService, "maxEntries");
+		ReflectionTestUtils.setField(idempotencyService, "maxEntries", 4);
+		try {
+			List<Long> ids = new ArrayList<>();
+			for (int i = 0; i < 10; i++) {
+				ids.add(idempotencyService.insertOrder(order(), "capped-" + i).getId());
+				assertTrue(entries.size() <= 5, "entries " + entries.size());
+			}
+			int before = orderCount();
+			for (int i = 0; i < 10; i++) {
+				assertEquals(ids.get(i), idempotencyService.insertOrder(order(), "capped-" + i).getId());
+			}
+			assertEquals(before, orderCount());
+		} finally {
+			ReflectionTestUtils.setField(idempotencyService, "maxEntries", maxEntries);
+		}
+	}
+
+	private static void authenticate() {
+		Jwt jwt = Jwt.withTokenValue("test").header("alg", "none").claim("username", CLIENT).build();
+		SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+	}
+
+	private static OrderDTO order() {
+		OrderDTO dto = new OrderDTO();
+		dto.getItems().add(new OrderItemDTO(1L, null, null, 1, null));
+		return dto;
+	}
+
+	private int orderCount() {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_order", Integer.class);
+	}
+}
@@ -0,0 +1,79 @@
+package com.dscommerce.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.dscommerce.services.StockService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Canceling or editing an order gives back the units its checkout took from
+ * stock, and only those: an order placed before its product was stock-tracked
+ * leaves the stock alone. Orders use a product no other test buys.
+ */
+// the H2 console security chain of the test profile needs the console configured
+@SpringBootTest(properties = "spring.h2.console.enabled=true")
+@AutoConfigureMockMvc
+class OrderStockTests {
+
+	private static final long PRODUCT_ID = 11L;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private StockService stockService;
+
+	@Test
+	void cancelShouldReleaseOnlyWhatWasReserved() throws Exception {
+		long untracked = createOrder(2);
+		stockService.setStock(PRODUCT_ID, 10);
+		call(post("/orders/" + untracked + "/cancel"));
+		assertEquals(10, stock());
+
+		long tracked = createOrder(3);
+		assertEquals(7, stock());
+		call(put("/orders/" + tracked).contentType(MediaType.APPLICATION_JSON).content(items(1)));
+		assertEquals(9, stock());
+		call(post("/orders/" + tracked + "/cancel"));
+		assertEquals(10, stock());
+	}
+
+	private long createOrder(int quantity) throws Exception {
+		String body = call(post("/orders").contentType(MediaType.APPLICATION_JSON).content(items(quantity)));
+		return objectMapper.readTree(body).get("id").asLong();
+	}
+
+	private static String items(int quantity) {
+		return "{\"items\":[{\"productId\":" + PRODUCT_ID + ",\"quantity\":" + quantity + "}]}";
+	}
+
+	private int stock() {
+		return stockService.findStock(List.of(PRODUCT_ID)).get(PRODUCT_ID);
+	}
+
+	private String call(MockHttpServletRequestBuilder request) throws Exception {
+		return mockMvc.perform(request
+						.with(jwt().jwt(token -> token.claim("username", "maria@gmail.com"))
+								.authorities(new SimpleGrantedAuthority("ROLE_CLIENT"))))
+				.andExpect(status().is2xxSuccessful())
+				.andReturn().getResponse().getContentAsString();
+	}
+}
@@ -0,0 +1,87 @@
+package com.dscommerce.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Two PUTs on the same order that loaded the same version: whichever loses
+ * the version bump must get 409, not a 500 from the untranslated lock
+ * exception. The test holds the row itself and bumps the version while both
+ * are waiting for it, so both lose and the outcome does not depend on timing.
+ */
+// the H2 console security chain of the test profile needs the console configured
+@SpringBootTest(properties = "spring.h2.console.enabled=true")
+@AutoConfigureMockMvc
+class OrderUpdateConflictTests {
+
+	// waiting for payment, owned by maria
+	private static final long ORDER_ID = 3L;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void concurrentPutsShouldConflictInsteadOfFailing() throws Exception {
+		boolean postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+				connection.getMetaData().getDatabaseProductName().equalsIgnoreCase("PostgreSQL"));
+		String blocked = postgres
+				? "SELECT COUNT(*) FROM pg_stat_activity WHERE wait_event_type = 'Lock'"
+				: "SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS WHERE BLOCKER_ID IS NOT NULL";
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try (Connection holder = dataSource.getConnection(); Statement st = holder.createStatement()) {
+			holder.setAutoCommit(false);
+			st.executeUpdate("UPDATE tb_order SET version = version + 1 WHERE id = " + ORDER_ID);
+
+			List<Future<MvcResult>> futures = new ArrayList<>();
+			for (String items : List.of("[{\"productId\":1,\"quantity\":5}]", "[{\"productId\":2,\"quantity\":3}]")) {
+				futures.add(executor.submit(() -> mockMvc.perform(put("/orders/{id}", ORDER_ID)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"items\":" + items + "}")
+						.with(jwt().jwt(token -> token.claim("username", "maria@gmail.com"))
+								.authorities(new SimpleGrantedAuthority("ROLE_CLIENT"))))
+						.andReturn()));
+			}
+			long deadline = System.nanoTime() + 5_000_000_000L;
+			while (jdbcTemplate.queryForObject(blocked, Integer.class) < 2 && System.nanoTime() < deadline) {
+				Thread.sleep(10);
+			}
+			holder.commit();
+
+			for (Future<MvcResult> future : futures) {
+				MvcResult result = future.get();
+				assertEquals(409, result.getResponse().getStatus(), result.getResponse().getContentAsString());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package com.dscommerce.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.dscommerce.dto.ProductSalesDTO;
+import com.dscommerce.entities.enums.OrderStatus;
+import com.dscommerce.events.OrderStatusChangedEvent;
+import com.dscommerce.services.SalesAnalyticsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The sales rollups follow orders through payment, shipping, delivery and
+ * cancellation, agree with a rebuild from the tables, and are rebuilt when a
+ * change was dropped. Orders use a product no other test buys, so its totals
+ * only move with this test.
+ */
+// the H2 console security chain of the test profile needs the console configured
+@SpringBootTest(properties = "spring.h2.console.enabled=true")
+@AutoConfigureMockMvc
+class SalesAnalyticsTests {
+
+	private static final String ADMIN = "alex@gmail.com";
+	private static final String CLIENT = "maria@gmail.com";
+	private static final long PRODUCT_ID = 10L;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private SalesAnalyticsService salesAnalyticsService;
+
+	@Test
+	void rollupsShouldFollowOrdersAndMatchARebuild() throws Exception {
+		long units = units();
+
+		long canceled = createOrder(2);
+		call(post("/orders/" + canceled + "/pay"), CLIENT);
+		awaitUnits(units + 2);
+		call(post("/orders/" + canceled + "/cancel"), CLIENT);
+		awaitUnits(units);
+
+		long delivered = createOrder(3);
+		call(post("/orders/" + delivered + "/pay"), CLIENT);
+		call(post("/orders/" + delivered + "/ship"), ADMIN);
+		call(post("/orders/" + delivered + "/deliver"), ADMIN);
+		awaitUnits(units + 3);
+
+		String incremental = objectMapper.writeValueAsString(salesAnalyticsService.findByProduct());
+		salesAnalyticsService.rebuild();
+		assertEquals(incremental, objectMapper.writeValueAsString(salesAnalyticsService.findByProduct()));
+	}
+
+	@Test
+	void droppedPaymentShouldBeCountedByTheNextCheck() throws Exception {
+		long units = units();
+		long order = createOrder(4);
+		// paid without an event reaching the rollups, as when the event queue was full
+		jdbcTemplate.update("UPDATE tb_order SET status = ? WHERE id = ?", OrderStatus.PAID.ordinal(), order);
+		salesAnalyticsService.dropped(new OrderStatusChangedEvent(order, 1L, OrderStatus.WAITING_PAYMENT,
+				OrderStatus.PAID, Instant.now()));
+
+		salesAnalyticsService.rebuildIfStale();
+		assertEquals(units + 4, units());
+	}
+
+	private long createOrder(int quantity) throws Exception {
+		String body = call(post("/orders").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"items\":[{\"productId\":" + PRODUCT_ID + ",\"quantity\":" + quantity + "}]}"), CLIENT);
+		return objectMapper.readTree(body).get("id").asLong();
+	}
+
+	private long units() {
+		return salesAnalyticsService.findByProduct().stream()
+				.filter(sales -> sales.getProductId() == PRODUCT_ID)
+				.mapToLong(ProductSalesDTO::getUnits)
+				.sum();
+	}
+
+	// the rollups are updated by the event bus workers, after the request returned
+	private void awaitUnits(long expected) throws InterruptedException {
+		long deadline = System.nanoTime() + 5_000_000_000L;
+		while (units() != expected && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(expected, units());
+	}
+
+	private String call(MockHttpServletRequestBuilder request, String email) throws Exception {
+		String role = email.equals(ADMIN) ? "ROLE_ADMIN" : "ROLE_CLIENT";
+		return mockMvc.perform(request
+						.with(jwt().jwt(token -> token.claim("username", email))
+								.authorities(new SimpleGrantedAuthority(role))))
+				.andExpect(status().is2xxSuccessful())
+				.andReturn().getResponse().getContentAsString();
+	}
+}
@@ -0,0 +1,228 @@
+package com.dscommerce.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Calls the repository methods behind the hot access paths, records the SQL
+ * they send together with its bind values, and runs EXPLAIN on exactly that.
+ * Fails if any of them plans a full table scan. Runs on H2 by default and on
+ * Postgres with {@code -Dtest.profile=dev} (seq scans are disabled there, so
+ * the planner must pick an index whenever one is usable).
+ */
+@SpringBootTest
+class QueryPlanTests {
+
+	// statements prepared while recording, with the setXxx calls made on them
+	private static final List<Recorded> RECORDED = new ArrayList<>();
+	private static volatile boolean recording;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderItemRepository orderItemRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private OrderArchiveRepository orderArchiveRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void hotQueriesShouldNotScanWholeTables() {
+		boolean postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+				connection.getMetaData().getDatabaseProductName().equalsIgnoreCase("PostgreSQL"));
+
+		Map<String, Runnable> calls = new LinkedHashMap<>();
+		calls.put("order history of a client", () -> orderRepository.searchHistory(1L, Limit.of(21)));
+		calls.put("next page of the order history", () -> orderRepository.searchHistoryAfter(1L,
+				Instant.parse("2030-01-01T00:00:00Z"), 100L, Limit.of(21)));
+		calls.put("archived order history of a client", () -> orderArchiveRepository.searchHistoryAfter(1L,
+				Instant.parse("2030-01-01T00:00:00Z"), 100L, Limit.of(21)));
+		calls.put("order with its items", () -> orderRepository.searchWithItemsById(1L));
+		calls.put("items of an order", () -> orderItemRepository.searchWithProductByOrderId(1L));
+		calls.put("sales rows of orders", () -> orderItemRepository.searchSalesRows(List.of(1L, 2L)));
+		calls.put("product with its categories", () -> productRepository.searchWithCategoriesById(1L));
+		calls.put("categories of a product", () -> categoryRepository.searchByProductId(1L));
+		calls.put("deletable products", () -> productRepository.searchDeletableIds(List.of(1L, 2L)));
+		calls.put("user and roles by email", () -> userRepository.searchUserAndRolesByEmail("maria@gmail.com"));
+		calls.put("user by email", () -> userRepository.findByEmail("maria@gmail.com"));
+		calls.put("orders by value", () -> orderRepository.searchSummaries(
+				PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "total"))));
+		if (postgres) {
+			// the trigram index only exists on Postgres
+			calls.put("product name search", () -> productRepository.searchProducts("gamer", List.of(), true,
+					null, null, PageRequest.of(0, 20)));
+		}
+
+		Map<String, List<Recorded>> statements = new LinkedHashMap<>();
+		for (Map.Entry<String, Runnable> call : calls.entrySet()) {
+			synchronized (RECORDED) {
+				RECORDED.clear();
+			}
+			recording = true;
+			try {
+				transactionTemplate.executeWithoutResult(status -> call.getValue().run());
+			} finally {
+				recording = false;
+			}
+			synchronized (RECORDED) {
+				assertFalse(RECORDED.isEmpty(), call.getKey() + " sent no query");
+				statements.put(call.getKey(), List.copyOf(RECORDED));
+			}
+		}
+
+		List<String> scans = jdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+			if (postgres) {
+				try (Statement st = connection.createStatement()) {
+					st.execute("SET enable_seqscan = off");
+				}
+			}
+			List<String> found = new ArrayList<>();
+			try {
+				for (Map.Entry<String, List<Recorded>> call : statements.entrySet()) {
+					for (Recorded recorded : call.getValue()) {
+						String plan = explain(connection, recorded);
+						if (plan.contains("Seq Scan") || plan.contains("tableScan")) {
+							found.add(call.getKey() + ":\n" + recorded.sql() + "\n" + plan);
+						}
+					}
+				}
+			} finally {
+				if (postgres) {
+					try (Statement st = connection.createStatement()) {
+						st.execute("RESET enable_seqscan");
+					}
+				}
+			}
+			return found;
+		});
+
+		assertTrue(scans.isEmpty(), "Full table scans found:\n" + String.join("\n", scans));
+	}
+
+	private static String explain(Connection connection, Recorded recorded) throws SQLException {
+		try (PreparedStatement st = connection.prepareStatement("EXPLAIN " + recorded.sql())) {
+			for (Bind bind : recorded.binds()) {
+				try {
+					bind.method().invoke(st, bind.args());
+				} catch (IllegalAccessException | InvocationTargetException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+			StringBuilder plan = new StringBuilder();
+			try (ResultSet rs = st.executeQuery()) {
+				while (rs.next()) {
+					plan.append(rs.getString(1)).append('\n');
+				}
+			}
+			return plan.toString();
+		}
+	}
+
+	private record Bind(Method method, Object[] args) {
+	}
+
+	private record Recorded(String sql, List<Bind> binds) {
+	}
+
+	@TestConfiguration
+	static class RecordingConfig {
+
+		// the application's DataSource, handing out connections that record prepared queries
+		@Bean
+		static BeanPostProcessor recordingDataSource() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					if (!(bean instanceof DataSource dataSource)) {
+						return bean;
+					}
+					return proxy(DataSource.class, dataSource, (method, args, result) ->
+							method.getName().equals("getConnection")
+									? proxy(Connection.class, result, QueryPlanTests::recordStatements)
+									: result);
+				}
+			};
+		}
+	}
+
+	private static Object recordStatements(Method method, Object[] args, Object result) {
+		if (!method.getName().equals("prepareStatement") || !recording) {
+			return result;
+		}
+		String sql = (String) args[0];
+		List<Bind> binds = new ArrayList<>();
+		return proxy(PreparedStatement.class, result, (psMethod, psArgs, psResult) -> {
+			String name = psMethod.getName();
+			if (name.startsWith("set") && psArgs != null && psArgs.length > 1 && psArgs[0] instanceof Integer) {
+				binds.add(new Bind(psMethod, psArgs.clone()));
+			} else if (name.startsWith("execute") && recording) {
+				synchronized (RECORDED) {
+					RECORDED.add(new Recorded(sql, List.copyOf(binds)));
+				}
+			}
+			return psResult;
+		});
+	}
+
+	private interface AfterCall {
+		Object apply(Method method, Object[] args, Object result) throws Exception;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, Object target, AfterCall after) {
+		return (T) Proxy.newProxyInstance(QueryPlanTests.class.getClassLoader(), new Class<?>[] { type },
+				(proxy, method, args) -> {
+					Object result;
+					try {
+						result = method.invoke(target, args);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+					return after.apply(method, args, result);
+				});
+	}
+}